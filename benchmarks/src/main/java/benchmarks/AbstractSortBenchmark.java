@@ -0,0 +1,188 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sorting.CustomSort;
+import sorting.IntLibrarySortStrategy;
+import sorting.IntTimSortStrategy;
+import sorting.TimSortStrategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение стратегий сортировки с Arrays.sort на разных распределениях.
+ * Каждый вызов копирует исходные данные в рабочий массив и сортирует его; копирование
+ * входит в замер всех методов одинаково, в том числе в замер Arrays.sort.<br>
+ * Размеры задают наследники: {@link SortBenchmark} - от 100 до 100000 с кучей по умолчанию,
+ * {@link LargeArrayBenchmark} - от 1000000 до 100000000 в отдельной JVM с большой кучей.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public abstract class AbstractSortBenchmark {
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "SAWTOOTH", "FEW_UNIQUES", "ORGAN_PIPE"})
+    public Distribution distribution;
+
+    private int size;
+    private int[] source;
+    private Integer[] boxedSource;
+    private int[] ints;
+    private Integer[] boxed;
+
+    private final TimSortStrategy timSort = new TimSortStrategy();
+    private final IntTimSortStrategy intTimSort = new IntTimSortStrategy();
+    private final IntLibrarySortStrategy intLibrarySort = new IntLibrarySortStrategy();
+
+    /**
+     * Размер массива (параметр size наследника).
+     */
+    protected abstract int size();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        size = size();
+        source = distribution.generate(size, new SplittableRandom(42));
+        boxedSource = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxedSource[i] = source[i];
+        }
+        ints = new int[size];
+        boxed = new Integer[size];
+    }
+
+    @Benchmark
+    public Integer[] timSort() {
+        copyBoxed();
+        timSort.sort(boxed);
+        return boxed;
+    }
+
+    @Benchmark
+    public int[] intTimSort() {
+        System.arraycopy(source, 0, ints, 0, size);
+        intTimSort.sort(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] intLibrarySort() {
+        System.arraycopy(source, 0, ints, 0, size);
+        intLibrarySort.sort(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public Integer[] sortEvenOdd() {
+        copyBoxed();
+        CustomSort.sortEvenOdd(boxed, timSort, true);
+        return boxed;
+    }
+
+    @Benchmark
+    public Integer[] arraysSortBoxed() {
+        copyBoxed();
+        Arrays.sort(boxed);
+        return boxed;
+    }
+
+    @Benchmark
+    public int[] arraysSortInts() {
+        System.arraycopy(source, 0, ints, 0, size);
+        Arrays.sort(ints);
+        return ints;
+    }
+
+    /**
+     * Копирует исходные данные в рабочий массив Integer[] и возвращает его.
+     */
+    protected Integer[] copyBoxed() {
+        System.arraycopy(boxedSource, 0, boxed, 0, size);
+        return boxed;
+    }
+
+    /**
+     * Распределения входных данных.
+     */
+    public enum Distribution {
+        RANDOM {
+            @Override
+            int[] generate(int size, SplittableRandom random) {
+                int[] data = new int[size];
+                for (int i = 0; i < size; i++) {
+                    data[i] = random.nextInt();
+                }
+                return data;
+            }
+        },
+        SORTED {
+            @Override
+            int[] generate(int size, SplittableRandom random) {
+                int[] data = new int[size];
+                for (int i = 0; i < size; i++) {
+                    data[i] = i;
+                }
+                return data;
+            }
+        },
+        REVERSED {
+            @Override
+            int[] generate(int size, SplittableRandom random) {
+                int[] data = new int[size];
+                for (int i = 0; i < size; i++) {
+                    data[i] = size - i;
+                }
+                return data;
+            }
+        },
+        SAWTOOTH {
+            @Override
+            int[] generate(int size, SplittableRandom random) {
+                int[] data = new int[size];
+                int period = Math.max(1, size / 16);
+                for (int i = 0; i < size; i++) {
+                    data[i] = i % period;
+                }
+                return data;
+            }
+        },
+        FEW_UNIQUES {
+            @Override
+            int[] generate(int size, SplittableRandom random) {
+                int[] data = new int[size];
+                for (int i = 0; i < size; i++) {
+                    data[i] = random.nextInt(16);
+                }
+                return data;
+            }
+        },
+        ORGAN_PIPE {
+            @Override
+            int[] generate(int size, SplittableRandom random) {
+                int[] data = new int[size];
+                int half = size / 2;
+                for (int i = 0; i < size; i++) {
+                    data[i] = i < half ? i : size - i;
+                }
+                return data;
+            }
+        };
+
+        abstract int[] generate(int size, SplittableRandom random);
+    }
+}
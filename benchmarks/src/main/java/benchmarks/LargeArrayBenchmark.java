@@ -0,0 +1,22 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link AbstractSortBenchmark} на размерах от 1000000 до 100000000, без LibrarySortStrategy.
+ * На 100000000 элементов исходные и рабочие массивы int[] и Integer[] занимают
+ * несколько гигабайт, поэтому этот бенчмарк запускается с большой кучей и одной JVM:
+ * <pre>java -jar target/benchmarks.jar LargeArrayBenchmark</pre>
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class LargeArrayBenchmark extends AbstractSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
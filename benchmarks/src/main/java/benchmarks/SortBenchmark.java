@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import sorting.LibrarySortStrategy;
+
+/**
+ * {@link AbstractSortBenchmark} на размерах от 100 до 100000, которым хватает кучи по умолчанию,
+ * и LibrarySortStrategy для Integer[], которую запускает Main.
+ * Запуск с профилировщиком GC (скорость выделения памяти):
+ * <pre>java -jar target/benchmarks.jar SortBenchmark -prof gc</pre>
+ * Размеры от 1000000 вынесены в {@link LargeArrayBenchmark}.
+ */
+public class SortBenchmark extends AbstractSortBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private final LibrarySortStrategy librarySort = new LibrarySortStrategy();
+
+    @Override
+    protected int size() {
+        return size;
+    }
+
+    /**
+     * Только здесь: на упорядоченных данных LibrarySortStrategy работает за квадратичное
+     * время (около 30 секунд на сортировку 100000 элементов), на больших размерах
+     * запуск не закончился бы за разумное время.
+     */
+    @Benchmark
+    public Integer[] librarySort() {
+        Integer[] boxed = copyBoxed();
+        librarySort.sort(boxed);
+        return boxed;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SortBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,13 +1,22 @@
+import cli.BatchRunner;
+import input.BinaryFileDataReader;
 import input.FileDataReader;
 import input.ManualDataReader;
 import input.RandomDataReader;
 import sorting.CustomSort;
+import sorting.ExternalMergeSort;
 import sorting.LibrarySortStrategy;
 import sorting.SortContext;
+import sorting.SortMetrics;
+import sorting.SortStats;
 import sorting.TimSortStrategy;
 
 import input.DataInput;
-import java.util.Arrays;
+import input.StreamingDataReader;
+import output.BinaryDataWriter;
+import output.DataWriter;
+import output.TextDataWriter;
+
 import java.util.InputMismatchException;
 import java.util.Scanner;
 
@@ -15,8 +24,16 @@ public class Main {
     private static final String ANSI_RED = "\u001B[31m";
     private static final String DEFAULT = "\u001B[0m";
     private static final Scanner scanner = new Scanner(System.in);
+    private static final SortMetrics metrics = new SortMetrics();
 
     public static void main(String[] args) {
+        // С аргументами командной строки - пакетный режим без диалога
+        if (args.length > 0) {
+            System.exit(BatchRunner.run(args));
+        }
+
+        // Накопленная статистика сортировок доступна через JMX (jconsole) на время работы программы
+        metrics.register(SortMetrics.DEFAULT_NAME);
 
         boolean running = true;
 
@@ -33,13 +50,15 @@ public class Main {
                 System.out.println("1. Из файла");
                 System.out.println("2. Случайные данные");
                 System.out.println("3. Ввод вручную");
+                System.out.println("4. Из двоичного файла (int32, little-endian)");
+                System.out.println("5. Внешняя сортировка файла, который не помещается в память");
 
                 try {
                     fillOption = scanner.nextInt();
-                    if (fillOption < 1 || fillOption > 3) {
-                        System.out.println(ANSI_RED + "Неверный выбор. Пожалуйста, выберите значение от 1 до 3.");
+                    if (fillOption < 1 || fillOption > 5) {
+                        System.out.println(ANSI_RED + "Неверный выбор. Пожалуйста, выберите значение от 1 до 5.");
                         continue;
-                    } else if (fillOption == 1) {
+                    } else if (fillOption == 1 || fillOption == 4 || fillOption == 5) {
                         System.out.println("Введите путь к файлу: ");
                         scanner.nextLine();
                         fileName = scanner.nextLine();
@@ -51,8 +70,18 @@ public class Main {
                 }
             }
 
-            // Length Validation
-            while (true) {
+            if (fillOption == 5) {
+                try {
+                    runExternalSort(fileName);
+                } catch (RuntimeException e) {
+                    System.out.println(ANSI_RED + e.getMessage());
+                }
+                running = !askExit();
+                continue;
+            }
+
+            // Length Validation (файлы читаются целиком, длина определяется по содержимому)
+            while (fillOption == 2 || fillOption == 3) {
                 System.out.println("Введите длину массива:");
                 try {
                     length = scanner.nextInt();
@@ -71,7 +100,7 @@ public class Main {
             switch (fillOption) {
                 case 1:
                     FileDataReader fileDataReader = new FileDataReader(fileName);
-                    dataArray = new DataInput(fileDataReader).getData(length);
+                    dataArray = new DataInput(fileDataReader).getData();
                     break;
                 case 2:
                     dataArray = new DataInput(new RandomDataReader()).getData(length);
@@ -79,6 +108,9 @@ public class Main {
                 case 3:
                     dataArray = new DataInput(new ManualDataReader()).getData(length);
                     break;
+                case 4:
+                    dataArray = new DataInput(new BinaryFileDataReader(fileName)).getData();
+                    break;
                 case 0:
                     System.exit(fillOption);
             }
@@ -88,10 +120,11 @@ public class Main {
                 System.out.println(DEFAULT + "Выберите алгоритм сортировки:");
                 System.out.println("1. TimSort");
                 System.out.println("2. Library sort");
+                System.out.println("3. Автоматический выбор");
                 try {
                     sortOption = scanner.nextInt();
-                    if (sortOption < 1 || sortOption > 2) {
-                        System.out.println(ANSI_RED + "Неверный выбор. Пожалуйста, выберите значение от 1 до 2.");
+                    if (sortOption < 1 || sortOption > 3) {
+                        System.out.println(ANSI_RED + "Неверный выбор. Пожалуйста, выберите значение от 1 до 3.");
                         continue;
                     }
                     break;
@@ -121,6 +154,8 @@ public class Main {
             }
 
             SortContext sortContext = new SortContext();
+            SortStats sortStats = new SortStats();
+            sortContext.setStats(sortStats);
             switch (sortOption) {
                 case 1:
                     sortContext.setStrategy(new TimSortStrategy());
@@ -128,9 +163,12 @@ public class Main {
                 case 2:
                     sortContext.setStrategy(new LibrarySortStrategy());
                     break;
+                case 3:
+                    sortContext.useAdaptiveStrategy();
+                    break;
             }
 
-            System.out.println("Исходный массив: " + Arrays.toString(dataArray));
+            printArray("Исходный массив: ", dataArray);
 
             long startTime = System.nanoTime();
             switch (sortType) {
@@ -138,32 +176,77 @@ public class Main {
                     sortContext.executeStrategy(dataArray);
                     break;
                 case 2:
-                    CustomSort.sortEvenOdd(dataArray, sortContext.getStrategy(), true);
+                    CustomSort.sortEvenOdd(dataArray, sortContext.getStrategy(), true, sortStats);
                     break;
                 case 3:
-                    CustomSort.sortEvenOdd(dataArray, sortContext.getStrategy(), false);
+                    CustomSort.sortEvenOdd(dataArray, sortContext.getStrategy(), false, sortStats);
                     break;
             }
             long endTime = System.nanoTime();
             long nanoTime = endTime - startTime;
 
-            System.out.printf("Время выполнения сортировки: %d нс (%.2f мс)\n", nanoTime, (nanoTime / 1000000.0));
-            System.out.println("Отсортированный массив: " + Arrays.toString(dataArray));
+            metrics.record(sortStats, dataArray.length);
 
-            while (true){
-                System.out.println("Хотите выйти? (да/нет)");
-                String exitOption = scanner.next();
-                if (exitOption.equalsIgnoreCase("да")) {
-                    running = false;
-                    break;
-                } else if (exitOption.equalsIgnoreCase("нет")){
-                    break;
-                } else {
-                    System.out.println(ANSI_RED + "Неверный ввод. Пожалуйста, напишите \"да\" или \"нет\"");
-                }
-            }
+            System.out.printf("Количество перестановок: %d\n", sortStats.getSteps());
+            System.out.printf("Сравнений: %d, прогонов: %d, слияний: %d, входов в галопирование: %d, "
+                            + "перестроек библиотеки: %d\n", sortStats.getComparisons(), sortStats.getRuns(),
+                    sortStats.getMerges(), sortStats.getGallopEntries(), sortStats.getRebalances());
+            System.out.printf("Время выполнения сортировки: %d нс (%.2f мс)\n", nanoTime, (nanoTime / 1000000.0));
+            printArray("Отсортированный массив: ", dataArray);
 
+            running = !askExit();
         }
         scanner.close();
     }
+
+    /**
+     * Печатает массив без построения одной большой строки.
+     */
+    private static void printArray(String title, Integer[] array) {
+        System.out.print(title);
+        try (DataWriter writer = new TextDataWriter(System.out)) {
+            writer.write(array);
+        }
+        if (array.length == 0) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Сортирует файл внешней сортировкой и записывает результат в файл.
+     * Файлы с расширением .bin читаются и пишутся как двоичные (int32, little-endian), остальные - как текст.
+     */
+    private static void runExternalSort(String fileName) {
+        System.out.println("Введите путь к файлу результата: ");
+        String outputName = scanner.nextLine();
+        StreamingDataReader reader = fileName.endsWith(".bin")
+                ? new BinaryFileDataReader(fileName)
+                : new FileDataReader(fileName);
+
+        long startTime = System.nanoTime();
+        long count;
+        try (DataWriter writer = outputName.endsWith(".bin")
+                ? new BinaryDataWriter(outputName)
+                : new TextDataWriter(outputName)) {
+            count = new ExternalMergeSort().sort(reader, writer);
+        }
+        long nanoTime = System.nanoTime() - startTime;
+
+        System.out.printf("Отсортировано чисел: %d\n", count);
+        System.out.printf("Время выполнения сортировки: %d нс (%.2f мс)\n", nanoTime, (nanoTime / 1000000.0));
+    }
+
+    private static boolean askExit() {
+        while (true) {
+            System.out.println("Хотите выйти? (да/нет)");
+            String exitOption = scanner.next();
+            if (exitOption.equalsIgnoreCase("да")) {
+                return true;
+            } else if (exitOption.equalsIgnoreCase("нет")) {
+                return false;
+            } else {
+                System.out.println(ANSI_RED + "Неверный ввод. Пожалуйста, напишите \"да\" или \"нет\"");
+            }
+        }
+    }
 }
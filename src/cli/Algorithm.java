@@ -0,0 +1,69 @@
+package cli;
+
+import sorting.AdaptiveSortStrategy;
+import sorting.CountingSortStrategy;
+import sorting.LibrarySortStrategy;
+import sorting.ParallelTimSortStrategy;
+import sorting.RadixSortStrategy;
+import sorting.SortStrategy;
+import sorting.TimSortStrategy;
+
+import java.util.Locale;
+
+/**
+ * Алгоритмы сортировки в памяти, доступные в пакетном режиме.
+ * Внешняя сортировка файла к ним не относится и задается отдельно ({@link BatchOptions#isExternal()}).
+ */
+public enum Algorithm {
+    TIMSORT {
+        @Override
+        public SortStrategy<Integer> create() {
+            return new TimSortStrategy();
+        }
+    },
+    LIBRARY {
+        @Override
+        public SortStrategy<Integer> create() {
+            return new LibrarySortStrategy();
+        }
+    },
+    ADAPTIVE {
+        @Override
+        public SortStrategy<Integer> create() {
+            return new AdaptiveSortStrategy();
+        }
+    },
+    PARALLEL {
+        @Override
+        public SortStrategy<Integer> create() {
+            return new ParallelTimSortStrategy();
+        }
+    },
+    RADIX {
+        @Override
+        public SortStrategy<Integer> create() {
+            return new RadixSortStrategy();
+        }
+    },
+    COUNTING {
+        @Override
+        public SortStrategy<Integer> create() {
+            return new CountingSortStrategy();
+        }
+    };
+
+    public abstract SortStrategy<Integer> create();
+
+    public String cliName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Algorithm fromCliName(String name) {
+        for (Algorithm algorithm : values()) {
+            if (algorithm.cliName().equals(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный алгоритм: " + name);
+    }
+}
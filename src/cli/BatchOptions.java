@@ -0,0 +1,341 @@
+package cli;
+
+import input.RandomDataReader;
+import input.RandomProfile;
+
+import java.util.Locale;
+
+/**
+ * Параметры пакетного запуска, разобранные из аргументов командной строки.
+ * Аргументы записываются как {@code --имя=значение} или {@code --имя значение}.
+ */
+public class BatchOptions {
+
+    /**
+     * Имя внешней сортировки в --algorithm.
+     */
+    static final String EXTERNAL = "external";
+
+    /**
+     * Источник данных.
+     */
+    public enum Input {
+        FILE, BINARY, RANDOM
+    }
+
+    /**
+     * Какие элементы сортируются.
+     */
+    public enum Parity {
+        ALL, EVEN, ODD
+    }
+
+    /**
+     * Формат отчета: строка на каждый запуск или одна сводка по гистограмме.
+     */
+    public enum Report {
+        RUNS, SUMMARY
+    }
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Использование: java -jar aston-sorting.jar [параметры]",
+            "  --input=file|binary|random  источник данных (по умолчанию file)",
+            "  --path=<файл>               входной файл для file и binary",
+            "  --length=<n>                количество чисел; для файлов - необязательная проверка",
+            "  --profile=<имя>             распределение случайных данных: small (0..99, по умолчанию),",
+            "                              uniform|zipf|presorted|reversed|sawtooth|duplicates",
+            "  --seed=<n>                  зерно случайных данных; без него зерно случайное",
+            "  --perturbation=<процент>    доля переставленных пар для presorted, от 0 до 100",
+            "                              (по умолчанию 1)",
+            "  --algorithm=<имя>           timsort|library|adaptive|parallel|radix|counting|external",
+            "                              (по умолчанию timsort)",
+            "  --parity=all|even|odd       сортировать все, только четные или только нечетные",
+            "  --smallest=<k>              вместо полной сортировки отобрать k наименьших чисел;",
+            "                              файлы читаются потоком, --algorithm не используется",
+            "  --largest=<k>               то же для k наибольших (результат по убыванию)",
+            "  --output=<файл>             записать результат; .bin - двоичный формат, иначе текст",
+            "  --repeat=<n>                количество измеряемых запусков (по умолчанию 1)",
+            "  --warmup=<n>                количество прогревочных запусков без замера (по умолчанию 0)",
+            "  --report=runs|summary       строка CSV на каждый запуск или сводка: процентили",
+            "                              времени и выделенная память на одну сортировку",
+            "  --help                      эта справка",
+            "Отчет runs: run,algorithm,parity,length,nanos,steps,allocated_bytes",
+            "Отчет summary: algorithm,parity,length,warmup,runs,min_nanos,p50_nanos,p99_nanos,max_nanos,"
+                    + "mean_nanos,allocated_bytes_per_sort",
+            "allocated_bytes равно -1, если JVM не поддерживает подсчет выделенной памяти");
+
+    private Input input = Input.FILE;
+    private String path;
+    private int length = -1;
+    private RandomProfile profile = RandomProfile.SMALL;
+    private Long seed;
+    private double perturbation = RandomDataReader.DEFAULT_PERTURBATION_PERCENT;
+    private Algorithm algorithm = Algorithm.TIMSORT;
+    private boolean external;
+    private Parity parity = Parity.ALL;
+    private int top = -1;
+    private boolean largest;
+    private String output;
+    private int repeat = 1;
+    private int warmup;
+    private Report report = Report.RUNS;
+    private boolean help;
+
+    /**
+     * Разбирает аргументы командной строки.
+     *
+     * @throws IllegalArgumentException если аргументы некорректны
+     */
+    public static BatchOptions parse(String[] args) {
+        BatchOptions options = new BatchOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+            }
+            String name;
+            String value;
+            int eq = arg.indexOf('=');
+            if (eq >= 0) {
+                name = arg.substring(2, eq);
+                value = arg.substring(eq + 1);
+            } else {
+                name = arg.substring(2);
+                if (name.equals("help")) {
+                    options.help = true;
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Не задано значение параметра --" + name);
+                }
+                value = args[++i];
+            }
+            options.set(name, value);
+        }
+        options.validate();
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "input":
+                input = parseEnum(Input.class, name, value);
+                break;
+            case "path":
+                path = value;
+                break;
+            case "length":
+                length = parsePositive(name, value);
+                break;
+            case "profile":
+                profile = parseEnum(RandomProfile.class, name, value);
+                break;
+            case "seed":
+                seed = parseSeed(name, value);
+                break;
+            case "perturbation":
+                perturbation = parsePercent(name, value);
+                break;
+            case "algorithm":
+                String algorithmName = value.toLowerCase(Locale.ROOT);
+                external = algorithmName.equals(EXTERNAL);
+                if (!external) {
+                    algorithm = Algorithm.fromCliName(algorithmName);
+                }
+                break;
+            case "parity":
+                parity = parseEnum(Parity.class, name, value);
+                break;
+            case "smallest":
+            case "largest":
+                if (top >= 0) {
+                    throw new IllegalArgumentException("Параметры --smallest и --largest нельзя задавать вместе");
+                }
+                top = parsePositive(name, value);
+                largest = name.equals("largest");
+                break;
+            case "output":
+                output = value;
+                break;
+            case "repeat":
+                repeat = parsePositive(name, value);
+                break;
+            case "warmup":
+                warmup = parseNonNegative(name, value);
+                break;
+            case "report":
+                report = parseEnum(Report.class, name, value);
+                break;
+            case "help":
+                help = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный параметр: --" + name);
+        }
+    }
+
+    private void validate() {
+        if (help) {
+            return;
+        }
+        if (input != Input.RANDOM && path == null) {
+            throw new IllegalArgumentException("Для чтения из файла нужен параметр --path");
+        }
+        if (input == Input.RANDOM && length < 0) {
+            throw new IllegalArgumentException("Для случайных данных нужен параметр --length");
+        }
+        if (top >= 0) {
+            if (external || parity != Parity.ALL) {
+                throw new IllegalArgumentException("Отбор --smallest/--largest не совместим с --algorithm=external и --parity");
+            }
+        }
+        if (external) {
+            if (input == Input.RANDOM || output == null) {
+                throw new IllegalArgumentException("Внешней сортировке нужны входной файл (--path) и файл результата (--output)");
+            }
+            if (parity != Parity.ALL) {
+                throw new IllegalArgumentException("Внешняя сортировка поддерживает только --parity=all");
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректное значение --" + name + ": " + value);
+        }
+    }
+
+    private static long parseSeed(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Значение --" + name + " должно быть целым числом: " + value);
+        }
+    }
+
+    private static double parsePercent(String name, String value) {
+        try {
+            double number = Double.parseDouble(value);
+            if (number >= 0 && number <= 100) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
+        }
+        throw new IllegalArgumentException("Значение --" + name + " должно быть числом от 0 до 100: " + value);
+    }
+
+    private static int parsePositive(String name, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
+        }
+        throw new IllegalArgumentException("Значение --" + name + " должно быть положительным целым числом: " + value);
+    }
+
+    private static int parseNonNegative(String name, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
+        }
+        throw new IllegalArgumentException("Значение --" + name + " должно быть неотрицательным целым числом: " + value);
+    }
+
+    public Input getInput() {
+        return input;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Ожидаемое количество чисел или -1, если оно не задано.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public RandomProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Зерно случайных данных или null, если оно не задано.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Процент переставленных пар для профиля presorted.
+     */
+    public double getPerturbation() {
+        return perturbation;
+    }
+
+    /**
+     * Алгоритм сортировки в памяти; не используется, если {@link #isExternal()}.
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Задана ли внешняя сортировка файла (--algorithm=external).
+     */
+    public boolean isExternal() {
+        return external;
+    }
+
+    public Parity getParity() {
+        return parity;
+    }
+
+    /**
+     * Сколько чисел отобрать (--smallest или --largest) или -1, если нужна полная сортировка.
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * true, если отбираются наибольшие числа.
+     */
+    public boolean isLargest() {
+        return largest;
+    }
+
+    /**
+     * Файл результата или null.
+     */
+    public String getOutput() {
+        return output;
+    }
+
+    public int getRepeat() {
+        return repeat;
+    }
+
+    public int getWarmup() {
+        return warmup;
+    }
+
+    public Report getReport() {
+        return report;
+    }
+
+    public boolean isHelp() {
+        return help;
+    }
+}
@@ -0,0 +1,335 @@
+package cli;
+
+import input.BinaryFileDataReader;
+import input.DataInput;
+import input.DataReader;
+import input.FileDataReader;
+import input.RandomDataReader;
+import input.StreamingDataReader;
+import output.BinaryDataWriter;
+import output.DataWriter;
+import output.TextDataWriter;
+import sorting.CustomSort;
+import sorting.ExternalMergeSort;
+import sorting.ParallelTimSortStrategy;
+import sorting.SortContext;
+import sorting.SortStats;
+import sorting.TopK;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Пакетный режим без диалога: читает данные, выполняет прогревочные запуски без
+ * замера, затем измеряемые запуски. Время каждого запуска попадает в
+ * {@link LatencyHistogram}, выделенная память считается через ThreadMXBean.
+ * Отчет печатается в CSV: строка на запуск или сводка. Массивы на консоль не выводятся.
+ * Коды завершения: 0 - успех, 1 - ошибка выполнения, 2 - некорректные аргументы.
+ */
+public class BatchRunner {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private final BatchOptions options;
+    private final PrintStream out;
+
+    public BatchRunner(BatchOptions options, PrintStream out) {
+        this.options = options;
+        this.out = out;
+    }
+
+    /**
+     * Разбирает аргументы и выполняет запуск.
+     *
+     * @return код завершения процесса
+     */
+    public static int run(String[] args) {
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BatchOptions.USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.isHelp()) {
+            System.out.println(BatchOptions.USAGE);
+            return EXIT_OK;
+        }
+        try {
+            new BatchRunner(options, System.out).run();
+            return EXIT_OK;
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    public void run() {
+        Trial trial;
+        if (options.getTop() >= 0) {
+            trial = new TopTrial();
+        } else if (options.isExternal()) {
+            trial = new ExternalTrial();
+        } else {
+            trial = new InMemoryTrial();
+        }
+
+        for (int i = 0; i < options.getWarmup(); i++) {
+            trial.prepare();
+            trial.execute();
+        }
+
+        boolean summary = options.getReport() == BatchOptions.Report.SUMMARY;
+        if (!summary) {
+            out.println("run,algorithm,parity,length,nanos,steps,allocated_bytes");
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        long allocatedTotal = 0;
+        long length = 0;
+        for (int run = 1; run <= options.getRepeat(); run++) {
+            trial.prepare();
+            long allocatedBefore = allocatedBytes();
+            long startTime = System.nanoTime();
+            length = trial.execute();
+            long nanoTime = System.nanoTime() - startTime;
+            long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+
+            histogram.record(nanoTime);
+            allocatedTotal += allocated;
+            if (!summary) {
+                out.println(run + "," + algorithmName() + "," + parityName() + ","
+                        + length + "," + nanoTime + "," + trial.steps() + "," + allocated);
+            }
+        }
+        if (summary) {
+            long allocatedPerSort = allocatedTotal < 0 ? -1 : allocatedTotal / options.getRepeat();
+            out.println("algorithm,parity,length,warmup,runs,min_nanos,p50_nanos,p99_nanos,max_nanos,"
+                    + "mean_nanos,allocated_bytes_per_sort");
+            out.println(algorithmName() + "," + parityName() + "," + length + ","
+                    + options.getWarmup() + "," + options.getRepeat() + ","
+                    + histogram.getMin() + "," + histogram.getValueAtPercentile(50) + ","
+                    + histogram.getValueAtPercentile(99) + "," + histogram.getMax() + ","
+                    + Math.round(histogram.getMean()) + "," + allocatedPerSort);
+        }
+        trial.finish();
+    }
+
+    /**
+     * Байты, выделенные текущим потоком с его запуска, или -1, если JVM этого не поддерживает.
+     * Память, выделенная потоками ForkJoinPool (parallel, adaptive), не учитывается.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Один вид запуска: подготовка не входит в замер.
+     */
+    private interface Trial {
+        void prepare();
+
+        /**
+         * @return количество отсортированных чисел
+         */
+        long execute();
+
+        long steps();
+
+        /**
+         * Вызывается после всех запусков.
+         */
+        void finish();
+    }
+
+    private class InMemoryTrial implements Trial {
+        private final Integer[] source = readInput();
+        private final Integer[] data = new Integer[source.length];
+        private final SortContext context = new SortContext();
+        private final SortStats stats = new SortStats();
+
+        InMemoryTrial() {
+            context.setStrategy(options.getAlgorithm().create());
+            context.setStats(stats);
+        }
+
+        @Override
+        public void prepare() {
+            System.arraycopy(source, 0, data, 0, source.length);
+            stats.reset();
+        }
+
+        @Override
+        public long execute() {
+            switch (options.getParity()) {
+                case ALL:
+                    context.executeStrategy(data);
+                    break;
+                case EVEN:
+                case ODD:
+                    boolean sortEven = options.getParity() == BatchOptions.Parity.EVEN;
+                    if (context.getStrategy() instanceof ParallelTimSortStrategy) {
+                        CustomSort.parallelSortEvenOdd(data, (ParallelTimSortStrategy) context.getStrategy(), sortEven);
+                    } else {
+                        CustomSort.sortEvenOdd(data, context.getStrategy(), sortEven, stats);
+                    }
+                    break;
+            }
+            return data.length;
+        }
+
+        @Override
+        public long steps() {
+            return stats.getSteps();
+        }
+
+        @Override
+        public void finish() {
+            if (options.getOutput() != null) {
+                try (DataWriter writer = openWriter(options.getOutput())) {
+                    writer.write(data);
+                }
+            }
+        }
+    }
+
+    private class ExternalTrial implements Trial {
+        private final StreamingDataReader reader = options.getInput() == BatchOptions.Input.BINARY
+                ? new BinaryFileDataReader(options.getPath())
+                : new FileDataReader(options.getPath());
+        private final ExternalMergeSort sort = new ExternalMergeSort();
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public long execute() {
+            long count;
+            try (DataWriter writer = openWriter(options.getOutput())) {
+                count = sort.sort(reader, writer);
+            }
+            if (options.getLength() >= 0 && count != options.getLength()) {
+                throw new RuntimeException("В файле содержится " + count + " чисел, но ожидается " + options.getLength());
+            }
+            return count;
+        }
+
+        @Override
+        public long steps() {
+            return 0;
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    /**
+     * Отбор k наименьших или наибольших чисел. Файлы читаются потоком при каждом запуске,
+     * случайные данные генерируются один раз.
+     */
+    private class TopTrial implements Trial {
+        private final StreamingDataReader reader;
+        private final int[] source;
+        private final TopK top = new TopK(options.getTop(), options.isLargest());
+
+        TopTrial() {
+            switch (options.getInput()) {
+                case FILE:
+                    reader = new FileDataReader(options.getPath());
+                    source = null;
+                    break;
+                case BINARY:
+                    reader = new BinaryFileDataReader(options.getPath());
+                    source = null;
+                    break;
+                default:
+                    reader = null;
+                    source = randomReader().generate(options.getLength());
+                    break;
+            }
+        }
+
+        @Override
+        public void prepare() {
+            top.clear();
+        }
+
+        @Override
+        public long execute() {
+            if (reader != null) {
+                reader.forEachChunk(top);
+            } else {
+                top.add(source, 0, source.length);
+            }
+            if (options.getLength() >= 0 && top.getCount() != options.getLength()) {
+                throw new RuntimeException("В файле содержится " + top.getCount() + " чисел, но ожидается " + options.getLength());
+            }
+            return top.getCount();
+        }
+
+        @Override
+        public long steps() {
+            return 0;
+        }
+
+        @Override
+        public void finish() {
+            if (options.getOutput() != null) {
+                try (DataWriter writer = openWriter(options.getOutput())) {
+                    writer.write(top.toSortedArray());
+                }
+            }
+        }
+    }
+
+    private Integer[] readInput() {
+        DataReader reader;
+        switch (options.getInput()) {
+            case FILE:
+                reader = new FileDataReader(options.getPath());
+                break;
+            case BINARY:
+                reader = new BinaryFileDataReader(options.getPath());
+                break;
+            default:
+                reader = randomReader();
+                break;
+        }
+        DataInput input = new DataInput(reader);
+        return options.getLength() >= 0 ? input.getData(options.getLength()) : input.getData();
+    }
+
+    private RandomDataReader randomReader() {
+        long seed = options.getSeed() != null ? options.getSeed() : new SplittableRandom().nextLong();
+        return new RandomDataReader(options.getProfile(), seed, options.getPerturbation());
+    }
+
+    private static DataWriter openWriter(String path) {
+        return path.endsWith(".bin") ? new BinaryDataWriter(path) : new TextDataWriter(path);
+    }
+
+    private String algorithmName() {
+        if (options.getTop() >= 0) {
+            return (options.isLargest() ? "largest" : "smallest") + options.getTop();
+        }
+        return options.isExternal() ? BatchOptions.EXTERNAL : options.getAlgorithm().cliName();
+    }
+
+    private String parityName() {
+        return options.getParity().name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,149 @@
+package input;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Чтение двоичного файла с 32-битными целыми числами без разбора текста.
+ * Файл отображается в память через {@link FileChannel#map}, значения копируются
+ * в int[] пакетно или доступны напрямую как {@link IntBuffer}.
+ */
+public class BinaryFileDataReader implements StreamingDataReader {
+
+    /**
+     * Максимальный размер одного отображения файла в память (в байтах), кратный 4.
+     */
+    private static final long MAX_MAPPING_SIZE = 1L << 30;
+
+    private final String filePath;
+    private final ByteOrder order;
+
+    /**
+     * Файл с числами в порядке байтов little-endian.
+     */
+    public BinaryFileDataReader(String filePath) {
+        this(filePath, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public BinaryFileDataReader(String filePath, ByteOrder order) {
+        this.filePath = filePath;
+        this.order = order;
+    }
+
+    @Override
+    public Integer[] getData(int length) {
+        int[] values = readAll();
+        if (values.length != length) {
+            throw new RuntimeException("В файле содержится " + values.length + " чисел, но ожидается " + length);
+        }
+        Integer[] numbers = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            numbers[i] = values[i];
+        }
+        return numbers;
+    }
+
+    /**
+     * Количество чисел в файле.
+     */
+    public long count() {
+        FileDataReader.validateFilePath(filePath);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            return elementCount(channel.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения файла: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Читает все числа файла в массив int[]; размер массива известен по размеру файла.
+     */
+    @Override
+    public int[] readAll() {
+        FileDataReader.validateFilePath(filePath);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long count = elementCount(channel.size());
+            if (count > Integer.MAX_VALUE - 8) {
+                throw new RuntimeException("Файл слишком большой для одного массива: " + count + " чисел");
+            }
+            int[] values = new int[(int) count];
+            long position = 0;
+            int offset = 0;
+            while (offset < values.length) {
+                long size = Math.min(MAX_MAPPING_SIZE, channel.size() - position);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                IntBuffer ints = mapped.order(order).asIntBuffer();
+                int n = ints.remaining();
+                ints.get(values, offset, n);
+                offset += n;
+                position += size;
+            }
+            return values;
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения файла: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void forEachChunk(int chunkSize, IntChunkConsumer consumer) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Размер порции должен быть положительным: " + chunkSize);
+        }
+        FileDataReader.validateFilePath(filePath);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long count = elementCount(channel.size());
+            int[] chunk = new int[(int) Math.min(chunkSize, Math.max(count, 1))];
+            long position = 0;
+            while (position < channel.size()) {
+                long size = Math.min(MAX_MAPPING_SIZE, channel.size() - position);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                IntBuffer ints = mapped.order(order).asIntBuffer();
+                while (ints.hasRemaining()) {
+                    int n = Math.min(chunk.length, ints.remaining());
+                    ints.get(chunk, 0, n);
+                    consumer.accept(chunk, n);
+                }
+                position += size;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения файла: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Отображает count чисел, начиная с числа first, в память без копирования.
+     * Отображение остается действительным после возврата из метода.
+     *
+     * @param first номер первого числа
+     * @param count количество чисел, не больше 2^28 в одном отображении
+     */
+    public IntBuffer map(long first, int count) {
+        FileDataReader.validateFilePath(filePath);
+        if (first < 0 || count < 0 || (long) count * Integer.BYTES > MAX_MAPPING_SIZE) {
+            throw new IllegalArgumentException("Некорректный диапазон: " + first + ", " + count);
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long total = elementCount(channel.size());
+            if (first + count > total) {
+                throw new RuntimeException("В файле содержится " + total + " чисел, запрошено до " + (first + count));
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                    first * Integer.BYTES, (long) count * Integer.BYTES);
+            return mapped.order(order).asIntBuffer();
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения файла: " + e.getMessage());
+        }
+    }
+
+    private long elementCount(long bytes) {
+        if (bytes % Integer.BYTES != 0) {
+            throw new RuntimeException("Размер файла " + bytes + " байт не кратен размеру числа (4 байта): " + filePath);
+        }
+        return bytes / Integer.BYTES;
+    }
+}
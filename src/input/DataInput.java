@@ -10,4 +10,20 @@ public class DataInput {
     public Integer[] getData(int length) {
         return reader.getData(length);
     }
+
+    /**
+     * Читает все данные источника, не зная заранее их количества.
+     * Поддерживается только для {@link StreamingDataReader}.
+     */
+    public Integer[] getData() {
+        if (!(reader instanceof StreamingDataReader)) {
+            throw new IllegalStateException("Источник данных требует указать длину массива");
+        }
+        int[] values = ((StreamingDataReader) reader).readAll();
+        Integer[] numbers = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            numbers[i] = values[i];
+        }
+        return numbers;
+    }
 }
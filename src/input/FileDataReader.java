@@ -1,11 +1,12 @@
 package input;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
-public class FileDataReader implements DataReader {
+public class FileDataReader implements StreamingDataReader {
     private String filePath;
 
     public FileDataReader(String filePath) {
@@ -21,25 +22,31 @@ public class FileDataReader implements DataReader {
 
     @Override
     public Integer[] getData(int length) {
-        validateFilePath(filePath);
+        int[] values = getInts(length);
         Integer[] numbers = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            numbers[i] = values[i];
+        }
+        return numbers;
+    }
+
+    /**
+     * Читает из файла ровно length чисел в массив int[].
+     * Текст разбирается побайтно, без построчного чтения и регулярных выражений.
+     */
+    public int[] getInts(int length) {
+        validateFilePath(filePath);
+        int[] numbers = new int[length];
         int count = 0;
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] tokens = line.split("[,\\s]+");
-                for (String token : tokens) {
-                    if (count >= length) {
-                        throw new RuntimeException("В файле содержится больше чисел, чем ожидается: " + length);
-                    }
-                    try {
-                        numbers[count++] = Integer.parseInt(token.trim());
-                    } catch (NumberFormatException e) {
-                        throw new RuntimeException("Файл содержит некорректное значение: " + token + " Введите путь к" +
-                                "файлу с целыми числами");
-                    }
-                }
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+             TextIntParser parser = new TextIntParser(channel)) {
+            int read;
+            while (count < length && (read = parser.read(numbers, count, length - count)) > 0) {
+                count += read;
+            }
+            if (count == length && parser.hasMore()) {
+                throw new RuntimeException("В файле содержится больше чисел, чем ожидается: " + length);
             }
         } catch (IOException e) {
             throw new RuntimeException("Ошибка чтения файла: " + e.getMessage());
@@ -51,4 +58,27 @@ public class FileDataReader implements DataReader {
 
         return numbers;
     }
+
+    /**
+     * Разбирает файл порциями, не зная заранее количества чисел.
+     */
+    @Override
+    public void forEachChunk(int chunkSize, IntChunkConsumer consumer) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Размер порции должен быть положительным: " + chunkSize);
+        }
+        validateFilePath(filePath);
+
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+             TextIntParser parser = new TextIntParser(channel)) {
+            // Каждое число, кроме последнего, занимает хотя бы цифру и разделитель
+            int[] chunk = new int[(int) Math.min(chunkSize, channel.size() / 2 + 1)];
+            int read;
+            while ((read = parser.read(chunk, 0, chunk.length)) > 0) {
+                consumer.accept(chunk, read);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения файла: " + e.getMessage());
+        }
+    }
 }
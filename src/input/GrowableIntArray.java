@@ -0,0 +1,103 @@
+package input;
+
+import java.util.Arrays;
+
+/**
+ * Растущий буфер значений int без упаковки в Integer.
+ * Емкость увеличивается в полтора раза, поэтому добавление n чисел
+ * копирует в сумме O(n) элементов.
+ */
+public class GrowableIntArray {
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+
+    /**
+     * Максимальный размер массива, который гарантированно может выделить JVM.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] values;
+    private int size;
+
+    public GrowableIntArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GrowableIntArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Емкость не может быть отрицательной: " + initialCapacity);
+        }
+        this.values = new int[initialCapacity];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            ensureCapacity(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Добавляет source[offset, offset + length).
+     */
+    public void add(int[] source, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(source, offset, values, size, length);
+        size += length;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Индекс " + index + " вне диапазона [0, " + size + ")");
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Увеличивает емкость так, чтобы в буфере поместилось minCapacity чисел.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new RuntimeException("Слишком много чисел для одного массива: " + Integer.toUnsignedString(minCapacity));
+        }
+        if (minCapacity <= values.length) {
+            return;
+        }
+        long grown = (long) values.length + (values.length >> 1);
+        int capacity = (int) Math.min(MAX_CAPACITY, Math.max(grown, minCapacity));
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    /**
+     * Внутренний массив без копирования; значимы только первые {@link #size()} элементов.
+     */
+    public int[] array() {
+        return values;
+    }
+
+    /**
+     * Копия значений ровно по размеру.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Забирает значения ровно по размеру и очищает буфер. Если емкость совпадает
+     * с размером, внутренний массив возвращается без копирования.
+     */
+    public int[] trimToArray() {
+        int[] result = values.length == size ? values : Arrays.copyOf(values, size);
+        values = new int[0];
+        size = 0;
+        return result;
+    }
+}
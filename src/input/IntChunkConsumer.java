@@ -0,0 +1,14 @@
+package input;
+
+/**
+ * Получатель очередной порции чисел из {@link StreamingDataReader}.
+ */
+@FunctionalInterface
+public interface IntChunkConsumer {
+
+    /**
+     * Обрабатывает chunk[0, length). Массив переиспользуется для следующих порций,
+     * поэтому значения, нужные после возврата, следует скопировать.
+     */
+    void accept(int[] chunk, int length);
+}
@@ -1,17 +1,226 @@
 package input;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
+/**
+ * Генератор случайных данных с заданным распределением ({@link RandomProfile}).
+ * <ul>
+ *     <li>Массив заполняется параллельно блоками по {@link #BLOCK_LENGTH} элементов; у каждого
+ *     блока свой {@link SplittableRandom}, зерно которого выводится из общего зерна и номера
+ *     блока.</li>
+ *     <li>Поэтому при одинаковых зерне, профиле и длине результат одинаков независимо от
+ *     количества потоков.</li>
+ *     <li>Без явного зерна оно выбирается случайно, как раньше.</li>
+ * </ul>
+ * Для больших объемов используйте {@link #generate(int)}: он возвращает int[] без упаковки.
+ */
 public class RandomDataReader implements DataReader {
 
+    /**
+     * Количество элементов, которые генерирует одна задача.
+     */
+    static final int BLOCK_LENGTH = 1 << 16;
+
+    /**
+     * Количество различных значений профиля {@link RandomProfile#ZIPF}.
+     */
+    static final int ZIPF_ELEMENTS = 1 << 20;
+
+    /**
+     * Процент переставленных пар профиля {@link RandomProfile#PRESORTED} по умолчанию.
+     */
+    public static final double DEFAULT_PERTURBATION_PERCENT = 1.0;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final RandomProfile profile;
+    private final long seed;
+    private final double perturbationPercent;
+
+    /**
+     * Числа от 0 до 99 со случайным зерном.
+     */
+    public RandomDataReader() {
+        this(RandomProfile.SMALL, new SplittableRandom().nextLong());
+    }
+
+    public RandomDataReader(RandomProfile profile, long seed) {
+        this(profile, seed, DEFAULT_PERTURBATION_PERCENT);
+    }
+
+    /**
+     * @param perturbationPercent сколько пар элементов переставить в профиле {@link RandomProfile#PRESORTED},
+     *                            в процентах от длины: 0 - полностью отсортированный массив
+     */
+    public RandomDataReader(RandomProfile profile, long seed, double perturbationPercent) {
+        if (profile == null) {
+            throw new IllegalArgumentException("Не задан профиль случайных данных");
+        }
+        if (!(perturbationPercent >= 0 && perturbationPercent <= 100)) {
+            throw new IllegalArgumentException("Процент перестановок должен быть от 0 до 100: " + perturbationPercent);
+        }
+        this.profile = profile;
+        this.seed = seed;
+        this.perturbationPercent = perturbationPercent;
+    }
+
+    public RandomProfile getProfile() {
+        return profile;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getPerturbationPercent() {
+        return perturbationPercent;
+    }
+
     @Override
     public Integer[] getData(int length) {
-        Random random = new Random();
+        int[] values = generate(length);
         Integer[] data = new Integer[length];
+        Arrays.parallelSetAll(data, i -> values[i]);
+        return data;
+    }
 
-        for (int i = 0; i < length; i++) {
-            data[i] = random.nextInt(100); // Генерация чисел от 0 до 99
+    /**
+     * Генерирует length чисел.
+     *
+     * @throws IllegalArgumentException если length отрицательна
+     */
+    public int[] generate(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Длина не может быть отрицательной: " + length);
         }
+        int[] data = new int[length];
+        fill(data);
         return data;
     }
+
+    /**
+     * Заполняет весь массив числами; длина массива определяет форму профиля
+     * (например, период {@link RandomProfile#SAWTOOTH}).
+     */
+    public void fill(int[] data) {
+        int length = data.length;
+        int blocks = (int) (((long) length + BLOCK_LENGTH - 1) / BLOCK_LENGTH);
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * BLOCK_LENGTH;
+            int to = (int) Math.min(length, (long) from + BLOCK_LENGTH);
+            fillBlock(data, from, to, new SplittableRandom(mix64(seed + block * GOLDEN_GAMMA)));
+        });
+        if (profile == RandomProfile.PRESORTED) {
+            perturb(data, new SplittableRandom(mix64(seed - GOLDEN_GAMMA)));
+        }
+    }
+
+    private void fillBlock(int[] data, int from, int to, SplittableRandom random) {
+        int length = data.length;
+        switch (profile) {
+            case SMALL:
+                for (int i = from; i < to; i++) {
+                    data[i] = random.nextInt(100);
+                }
+                break;
+            case UNIFORM:
+                for (int i = from; i < to; i++) {
+                    data[i] = random.nextInt();
+                }
+                break;
+            case ZIPF:
+                ZipfSampler zipf = new ZipfSampler(ZIPF_ELEMENTS);
+                for (int i = from; i < to; i++) {
+                    data[i] = zipf.sample(random) - 1;
+                }
+                break;
+            case PRESORTED:
+                for (int i = from; i < to; i++) {
+                    data[i] = i;
+                }
+                break;
+            case REVERSED:
+                for (int i = from; i < to; i++) {
+                    data[i] = length - i;
+                }
+                break;
+            case SAWTOOTH:
+                int period = Math.max(1, length / 16);
+                for (int i = from; i < to; i++) {
+                    data[i] = i % period;
+                }
+                break;
+            case DUPLICATES:
+                for (int i = from; i < to; i++) {
+                    data[i] = random.nextInt(16);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Переставляет perturbationPercent процентов случайных пар элементов
+     * (хотя бы одну, если процент не нулевой и элементов больше одного).
+     */
+    private void perturb(int[] data, SplittableRandom random) {
+        int length = data.length;
+        if (length < 2 || perturbationPercent == 0) {
+            return;
+        }
+        long swaps = Math.max(1, (long) (length * perturbationPercent / 100));
+        for (long s = 0; s < swaps; s++) {
+            int i = random.nextInt(length);
+            int j = random.nextInt(length);
+            int tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
+    }
+
+    /**
+     * Перемешивание битов из SplitMix64: зерна соседних блоков дают независимые последовательности.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Выборка из распределения Ципфа с показателем 1 на 1..n методом rejection-inversion
+     * (W. Hörmann, G. Derflinger, 1996): в среднем чуть больше одного равномерного числа
+     * и одной экспоненты на значение, без таблиц размера n.
+     * При показателе 1 плотность h(x) = 1 / x, ее первообразная - log(x).
+     */
+    private static final class ZipfSampler {
+        private final int elements;
+        private final double hIntegralX1;
+        private final double hIntegralElements;
+        private final double s;
+
+        ZipfSampler(int elements) {
+            this.elements = elements;
+            this.hIntegralX1 = Math.log(1.5) - 1;
+            this.hIntegralElements = Math.log(elements + 0.5);
+            this.s = 2 - Math.exp(Math.log(2.5) - 0.5);
+        }
+
+        int sample(SplittableRandom random) {
+            while (true) {
+                double u = hIntegralElements + random.nextDouble() * (hIntegralX1 - hIntegralElements);
+                double x = Math.exp(u);
+                int k = (int) (x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                } else if (k > elements) {
+                    k = elements;
+                }
+                if (k - x <= s || u >= Math.log(k + 0.5) - 1.0 / k) {
+                    return k;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package input;
+
+/**
+ * Распределение чисел, которые генерирует {@link RandomDataReader}.
+ */
+public enum RandomProfile {
+    /**
+     * Равномерно распределенные числа от 0 до 99.
+     */
+    SMALL,
+    /**
+     * Равномерно распределенные числа во всем диапазоне int.
+     */
+    UNIFORM,
+    /**
+     * Числа от 0 до 2^20 - 1 по закону Ципфа с показателем 1: число k встречается
+     * с частотой, пропорциональной 1 / (k + 1).
+     */
+    ZIPF,
+    /**
+     * Возрастающая последовательность 0, 1, 2, ..., в которой переставлена
+     * доля случайных пар элементов (по умолчанию 1%, см. {@link RandomDataReader}).
+     */
+    PRESORTED,
+    /**
+     * Убывающая последовательность length, length - 1, ..., 1.
+     */
+    REVERSED,
+    /**
+     * 16 одинаковых возрастающих прогонов.
+     */
+    SAWTOOTH,
+    /**
+     * Равномерно распределенные числа от 0 до 15: каждое значение повторяется много раз.
+     */
+    DUPLICATES
+}
@@ -0,0 +1,32 @@
+package input;
+
+/**
+ * Источник данных, который можно прочитать целиком за один проход,
+ * не зная заранее количества чисел. Числа передаются порциями
+ * или собираются в растущий буфер {@link GrowableIntArray}.
+ */
+public interface StreamingDataReader extends DataReader {
+
+    /**
+     * Размер порции по умолчанию.
+     */
+    int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Передает все числа источника порциями не больше chunkSize.
+     */
+    void forEachChunk(int chunkSize, IntChunkConsumer consumer);
+
+    default void forEachChunk(IntChunkConsumer consumer) {
+        forEachChunk(DEFAULT_CHUNK_SIZE, consumer);
+    }
+
+    /**
+     * Читает все числа источника в массив ровно по их количеству.
+     */
+    default int[] readAll() {
+        GrowableIntArray values = new GrowableIntArray(DEFAULT_CHUNK_SIZE);
+        forEachChunk(DEFAULT_CHUNK_SIZE, (chunk, length) -> values.add(chunk, 0, length));
+        return values.trimToArray();
+    }
+}
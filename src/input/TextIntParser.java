@@ -0,0 +1,223 @@
+package input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Потоковый разбор целых чисел из текста без создания строк.
+ * Байты читаются из канала в прямой буфер и пакетно копируются в массив,
+ * по которому идет разбор; числа разделяются запятыми
+ * и пробельными символами (как в регулярном выражении "[,\\s]+").
+ * Как и при разборе строк через split, пустая строка и разделитель в начале строки
+ * дают пустое значение и считаются ошибкой; разделители в конце строки допускаются.
+ * Строка создается только для сообщения об ошибке.
+ */
+class TextIntParser implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] chunk = new byte[BUFFER_SIZE];
+    private int position; // Индекс следующего байта в chunk
+    private int limit;    // Количество байтов в chunk
+
+    /**
+     * Таблица разделителей: запятая и пробельные символы.
+     */
+    private static final boolean[] SEPARATORS = new boolean[256];
+
+    static {
+        for (char c : new char[]{',', ' ', '\n', '\r', '\t', '\f', 0x0B}) {
+            SEPARATORS[c] = true;
+        }
+    }
+
+    /**
+     * Начало текущего числа в chunk (-1, если число не разбирается). Байты числа,
+     * оставшиеся в предыдущем буфере, сохраняются в token при перезаполнении
+     * буфера - они нужны только для сообщения о некорректном значении.
+     */
+    private int tokenStart = -1;
+
+    /**
+     * Разбор стоит в начале строки: следующий разделитель дал бы пустое значение.
+     */
+    private boolean lineStart = true;
+
+    /**
+     * Последним разделителем был '\r': следующий '\n' завершает ту же строку.
+     */
+    private boolean afterCarriageReturn;
+    private byte[] token = new byte[16];
+    private int tokenLength;
+
+    TextIntParser(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Разбирает до length чисел в dst, начиная с offset.
+     *
+     * @return количество прочитанных чисел или -1, если текст закончился
+     */
+    int read(int[] dst, int offset, int length) throws IOException {
+        int count = 0;
+        while (count < length) {
+            int b = skipSeparators();
+            if (b < 0) {
+                break;
+            }
+            dst[offset + count++] = parseToken(b);
+        }
+        return count == 0 && length > 0 ? -1 : count;
+    }
+
+    /**
+     * Проверяет, остались ли в тексте числа, не разбирая их.
+     */
+    boolean hasMore() throws IOException {
+        int b = skipSeparators();
+        if (b < 0) {
+            return false;
+        }
+        position--; // Возвращаем первый байт числа
+        return true;
+    }
+
+    private int skipSeparators() throws IOException {
+        int b;
+        while ((b = nextByte()) >= 0 && SEPARATORS[b]) {
+            separator(b);
+        }
+        lineStart = false;
+        afterCarriageReturn = false;
+        return b;
+    }
+
+    /**
+     * Учитывает разделитель: в начале строки он означает пустое значение.
+     */
+    private void separator(int b) {
+        if (b == '\n' && afterCarriageReturn) {
+            afterCarriageReturn = false;
+            return;
+        }
+        if (lineStart) {
+            tokenStart = -1;
+            throw badValue("");
+        }
+        lineStart = b == '\n' || b == '\r';
+        afterCarriageReturn = b == '\r';
+    }
+
+    private int parseToken(int b) throws IOException {
+        tokenStart = position - 1;
+        tokenLength = 0;
+        boolean negative = false;
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            b = nextByte();
+        }
+
+        long value = 0;
+        int digits = 0;
+        int significant = 0; // Цифры без ведущих нулей, как их допускает Integer.parseInt
+        while (b >= 0 && !SEPARATORS[b]) {
+            if (b < '0' || b > '9') {
+                throw badToken(b, true);
+            }
+            digits++;
+            // Больше 10 значащих цифр int не вмещает; дальше только проверяем символы
+            if ((value != 0 || b != '0') && ++significant <= 10) {
+                value = value * 10 + (b - '0');
+            }
+            b = nextByte();
+        }
+
+        if (negative) {
+            value = -value;
+        }
+        if (digits == 0 || significant > 10 || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw badToken(b, false);
+        }
+        tokenStart = -1;
+        if (b >= 0) {
+            separator(b);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Формирует ошибку с тем же текстом, что и при разборе через Integer.parseInt.
+     *
+     * @param b        последний прочитанный байт
+     * @param readRest true, если значение прочитано не полностью и его нужно дочитать до разделителя
+     */
+    private RuntimeException badToken(int b, boolean readRest) throws IOException {
+        if (readRest) {
+            do {
+                b = nextByte();
+            } while (b >= 0 && !SEPARATORS[b]);
+        }
+        // Последний прочитанный байт - разделитель, если текст не закончился
+        int end = b >= 0 ? position - 1 : position;
+        saveToken(end);
+        tokenStart = -1;
+        return badValue(new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+    }
+
+    private static RuntimeException badValue(String text) {
+        return new RuntimeException("Файл содержит некорректное значение: " + text + " Введите путь к" +
+                "файлу с целыми числами");
+    }
+
+    private int nextByte() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (tokenStart >= 0) {
+            saveToken(limit);
+            tokenStart = 0;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        if (read < 0) {
+            position = limit = 0;
+            return false;
+        }
+        buffer.flip();
+        limit = buffer.remaining();
+        buffer.get(chunk, 0, limit);
+        position = 0;
+        return true;
+    }
+
+    /**
+     * Дописывает в token байты текущего числа из chunk[tokenStart, end).
+     */
+    private void saveToken(int end) {
+        int n = end - tokenStart;
+        if (tokenLength + n > token.length) {
+            token = Arrays.copyOf(token, Math.max(token.length << 1, tokenLength + n));
+        }
+        System.arraycopy(chunk, tokenStart, token, tokenLength, n);
+        tokenLength += n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,88 @@
+package output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Запись 32-битных целых чисел в двоичный файл - формат, который читает
+ * {@link input.BinaryFileDataReader}. Значения пакетно копируются
+ * в прямой буфер и пишутся в {@link FileChannel} без промежуточных объектов.
+ */
+public class BinaryDataWriter implements DataWriter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Файл с числами в порядке байтов little-endian; существующий файл перезаписывается.
+     */
+    public BinaryDataWriter(String filePath) {
+        this(Path.of(filePath), ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public BinaryDataWriter(Path path, ByteOrder order) {
+        this(path, order, BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize размер буфера записи в байтах
+     */
+    public BinaryDataWriter(Path path, ByteOrder order, int bufferSize) {
+        if (bufferSize < Integer.BYTES) {
+            throw new IllegalArgumentException("Размер буфера слишком мал: " + bufferSize);
+        }
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка записи файла: " + e.getMessage());
+        }
+        this.buffer = ByteBuffer.allocateDirect(bufferSize & ~(Integer.BYTES - 1)).order(order);
+    }
+
+    @Override
+    public void write(int[] values, int offset, int length) {
+        while (length > 0) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            int n = Math.min(length, buffer.remaining() / Integer.BYTES);
+            // Представление создается на текущей позиции буфера, поэтому позицию сдвигаем вручную
+            buffer.asIntBuffer().put(values, offset, n);
+            buffer.position(buffer.position() + n * Integer.BYTES);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка записи файла: " + e.getMessage());
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Ошибка записи файла: " + e.getMessage());
+            }
+        }
+    }
+}
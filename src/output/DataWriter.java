@@ -0,0 +1,37 @@
+package output;
+
+import java.io.Closeable;
+
+/**
+ * Получатель отсортированных данных - пара к {@link input.DataReader}.
+ * Значения можно записывать несколькими вызовами подряд; запись завершается
+ * вызовом {@link #close()}, который сбрасывает буфер.
+ */
+public interface DataWriter extends Closeable {
+
+    /**
+     * Записывает values[offset, offset + length).
+     */
+    void write(int[] values, int offset, int length);
+
+    default void write(int[] values) {
+        write(values, 0, values.length);
+    }
+
+    /**
+     * Записывает массив Integer, распаковывая его порциями.
+     */
+    default void write(Integer[] data) {
+        int[] chunk = new int[Math.min(data.length, 1 << 12)];
+        for (int offset = 0; offset < data.length; offset += chunk.length) {
+            int n = Math.min(chunk.length, data.length - offset);
+            for (int i = 0; i < n; i++) {
+                chunk[i] = data[offset + i];
+            }
+            write(chunk, 0, n);
+        }
+    }
+
+    @Override
+    void close();
+}
@@ -0,0 +1,195 @@
+package output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Запись целых чисел текстом без создания строк для каждого значения.
+ * Цифры кодируются прямо в байтовый буфер (по две за шаг) и пачками
+ * отправляются в канал. Результат читается {@link input.FileDataReader}.
+ */
+public class TextDataWriter implements DataWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Наибольшая длина числа int в тексте: знак и 10 цифр.
+     */
+    private static final int MAX_INT_LENGTH = 11;
+
+    /**
+     * Пары цифр 00..99 для кодирования двух разрядов за шаг.
+     */
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private OutputStream stream; // Поток, который нужно сбросить при закрытии
+    private final byte[] separator;
+    private final byte[] chunk = new byte[BUFFER_SIZE];
+    private int position;
+    private boolean empty = true;
+
+    /**
+     * Файл, в котором каждое число записано на отдельной строке; существующий файл перезаписывается.
+     */
+    public TextDataWriter(String filePath) {
+        this(openFile(filePath), true, "\n");
+    }
+
+    /**
+     * Вывод через запятую в поток, например System.out. Поток при закрытии
+     * писателя не закрывается, только сбрасывается буфер.
+     */
+    public TextDataWriter(OutputStream out) {
+        this(Channels.newChannel(out), false, ", ");
+        this.stream = out;
+    }
+
+    /**
+     * @param channel      канал, в который пишется текст
+     * @param closeChannel закрывать ли канал при закрытии писателя
+     * @param separator    разделитель между числами; после последнего числа пишется перевод строки
+     */
+    public TextDataWriter(WritableByteChannel channel, boolean closeChannel, String separator) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.separator = separator.getBytes(StandardCharsets.UTF_8);
+        if (this.separator.length > BUFFER_SIZE - MAX_INT_LENGTH) {
+            throw new IllegalArgumentException("Слишком длинный разделитель");
+        }
+    }
+
+    private static WritableByteChannel openFile(String filePath) {
+        try {
+            return FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка записи файла: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void write(int[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        int reserve = separator.length + MAX_INT_LENGTH;
+        int i = offset;
+        int end = offset + length;
+        if (empty) {
+            if (chunk.length - position < MAX_INT_LENGTH) {
+                flush();
+            }
+            position = encode(values[i++], chunk, position);
+            empty = false;
+        }
+        byte[] sep = separator;
+        for (; i < end; i++) {
+            if (chunk.length - position < reserve) {
+                flush();
+            }
+            int pos = position;
+            if (sep.length == 1) {
+                chunk[pos++] = sep[0];
+            } else {
+                System.arraycopy(sep, 0, chunk, pos, sep.length);
+                pos += sep.length;
+            }
+            position = encode(values[i], chunk, pos);
+        }
+    }
+
+    /**
+     * Записывает десятичное представление value в dst, начиная с pos.
+     *
+     * @return позиция после последней цифры
+     */
+    static int encode(int value, byte[] dst, int pos) {
+        if (value == Integer.MIN_VALUE) {
+            for (byte b : "-2147483648".getBytes(StandardCharsets.US_ASCII)) {
+                dst[pos++] = b;
+            }
+            return pos;
+        }
+        if (value < 0) {
+            dst[pos++] = '-';
+            value = -value;
+        }
+        int end = pos + digitCount(value);
+        int i = end;
+        while (value >= 100) {
+            int pair = (value % 100) << 1;
+            value /= 100;
+            dst[--i] = DIGIT_PAIRS[pair + 1];
+            dst[--i] = DIGIT_PAIRS[pair];
+        }
+        if (value >= 10) {
+            dst[--i] = DIGIT_PAIRS[(value << 1) + 1];
+            dst[--i] = DIGIT_PAIRS[value << 1];
+        } else {
+            dst[--i] = (byte) ('0' + value);
+        }
+        return end;
+    }
+
+    private static int digitCount(int value) {
+        if (value < 100_000) {
+            return value < 100 ? (value < 10 ? 1 : 2) : value < 1_000 ? 3 : value < 10_000 ? 4 : 5;
+        }
+        return value < 10_000_000 ? (value < 1_000_000 ? 6 : 7)
+                : value < 100_000_000 ? 8 : value < 1_000_000_000 ? 9 : 10;
+    }
+
+    private void flush() {
+        ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, position);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка записи файла: " + e.getMessage());
+        }
+        position = 0;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!empty) {
+                if (position == chunk.length) {
+                    flush();
+                }
+                chunk[position++] = '\n';
+            }
+            flush();
+            if (stream != null) {
+                stream.flush();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка записи файла: " + e.getMessage());
+        } finally {
+            if (closeChannel) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new RuntimeException("Ошибка записи файла: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
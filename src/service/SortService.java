@@ -0,0 +1,338 @@
+package service;
+
+import sorting.AdaptiveSortStrategy;
+import sorting.IntSortStrategy;
+import sorting.ReusableTimSortStrategy;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сервис, который принимает запросы на сортировку из многих потоков.
+ * <ul>
+ *     <li>Запросы выполняются на ограниченном пуле потоков.</li>
+ *     <li>Маленькие массивы (короче batchThreshold) не получают отдельную задачу: они
+ *     складываются в общую очередь, и одна задача сортирует подряд все, что успело
+ *     накопиться, переиспользуя буферы {@link ReusableTimSortStrategy} своего потока.</li>
+ *     <li>Общее число элементов в принятых, но еще не отсортированных массивах ограничено:
+ *     {@link #submit} ждет, пока место освободится, {@link #trySubmit} ждет не дольше
+ *     заданного времени.</li>
+ * </ul>
+ * Массив сортируется на месте; future завершается тем же массивом.
+ * Стратегия для больших массивов должна быть потокобезопасной.
+ */
+public class SortService implements AutoCloseable {
+
+    /**
+     * Длина, до которой массивы объединяются в пакеты, по умолчанию.
+     */
+    public static final int DEFAULT_BATCH_THRESHOLD = 256;
+
+    /**
+     * Предел элементов в очереди по умолчанию.
+     */
+    public static final int DEFAULT_MAX_QUEUED_ELEMENTS = 1 << 26;
+
+    /**
+     * Сколько маленьких массивов одна задача сортирует, прежде чем уступить поток.
+     */
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final ThreadPoolExecutor executor;
+    private final IntSortStrategy strategy;
+    private final int batchThreshold;
+    private final int maxQueuedElements;
+    private final Semaphore capacity;
+
+    private final Queue<Request> smallRequests = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final LongAdder completedRequests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * Поток на каждое ядро, {@link AdaptiveSortStrategy} для больших массивов.
+     */
+    public SortService() {
+        this(Runtime.getRuntime().availableProcessors(), new AdaptiveSortStrategy(),
+                DEFAULT_BATCH_THRESHOLD, DEFAULT_MAX_QUEUED_ELEMENTS);
+    }
+
+    /**
+     * @param threads           количество потоков пула
+     * @param strategy          потокобезопасная стратегия для массивов не короче batchThreshold
+     * @param batchThreshold    длина, до которой массивы объединяются в пакеты
+     * @param maxQueuedElements предел элементов в принятых и еще не отсортированных массивах
+     */
+    public SortService(int threads, IntSortStrategy strategy, int batchThreshold, int maxQueuedElements) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным: " + threads);
+        }
+        if (batchThreshold < 0) {
+            throw new IllegalArgumentException("Порог пакета не может быть отрицательным: " + batchThreshold);
+        }
+        if (maxQueuedElements <= 0) {
+            throw new IllegalArgumentException("Предел очереди должен быть положительным: " + maxQueuedElements);
+        }
+        this.strategy = strategy;
+        this.batchThreshold = batchThreshold;
+        this.maxQueuedElements = maxQueuedElements;
+        this.capacity = new Semaphore(maxQueuedElements);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new SortThreadFactory());
+    }
+
+    /**
+     * Принимает массив на сортировку; если очередь заполнена, ждет освобождения места.
+     *
+     * @throws RejectedExecutionException если сервис закрыт или ожидание прервано
+     */
+    public CompletableFuture<int[]> submit(int[] array) {
+        int permits = permits(array);
+        try {
+            capacity.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Ожидание места в очереди прервано");
+        }
+        return enqueue(array, permits);
+    }
+
+    /**
+     * Как {@link #submit}, но ждет места в очереди не дольше timeout.
+     *
+     * @throws RejectedExecutionException если место не освободилось, сервис закрыт или ожидание прервано
+     */
+    public CompletableFuture<int[]> trySubmit(int[] array, long timeout, TimeUnit unit) {
+        int permits = permits(array);
+        try {
+            if (!capacity.tryAcquire(permits, timeout, unit)) {
+                throw new RejectedExecutionException("Очередь сортировки заполнена: " + getQueuedElements()
+                        + " элементов из " + maxQueuedElements);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Ожидание места в очереди прервано");
+        }
+        return enqueue(array, permits);
+    }
+
+    /**
+     * Массив длиннее предела очереди занимает всю очередь, иначе его нельзя было бы принять.
+     */
+    private int permits(int[] array) {
+        return Math.min(array.length, maxQueuedElements);
+    }
+
+    private CompletableFuture<int[]> enqueue(int[] array, int permits) {
+        Request request = new Request(array, permits);
+        if (array.length >= batchThreshold) {
+            try {
+                executor.execute(new SortTask(request));
+            } catch (RejectedExecutionException e) {
+                capacity.release(permits);
+                throw new RejectedExecutionException("Сервис сортировки закрыт");
+            }
+            return request.future;
+        }
+
+        smallRequests.add(request);
+        try {
+            // Сервис мог закрыться после проверки в execute, но до добавления в очередь:
+            // тогда close() уже мог забрать последние запросы, и этот никто не обработает
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException();
+            }
+            scheduleDrain();
+        } catch (RejectedExecutionException e) {
+            // Запрос отклоняется, только если его еще не забрали из очереди; иначе его
+            // досортирует задача или close()
+            if (smallRequests.remove(request)) {
+                capacity.release(permits);
+                throw new RejectedExecutionException("Сервис сортировки закрыт");
+            }
+        }
+        return request.future;
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drainSmallRequests);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Сортирует накопившиеся маленькие массивы одной задачей. Пока сервис работает,
+     * задача сортирует не больше {@link #MAX_BATCH_SIZE} массивов и уступает поток;
+     * после закрытия новую задачу запустить нельзя, поэтому очередь досортировывается до конца.
+     */
+    private void drainSmallRequests() {
+        while (true) {
+            sortSmallRequests(executor.isShutdown() ? Integer.MAX_VALUE : MAX_BATCH_SIZE);
+            batches.increment();
+            drainScheduled.set(false);
+            // Запрос мог прийти после опустошения очереди, но до сброса флага
+            if (smallRequests.isEmpty()) {
+                return;
+            }
+            if (!executor.isShutdown()) {
+                try {
+                    scheduleDrain();
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Сервис закрылся только что - досортировываем сами
+                }
+            }
+            if (!drainScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Сортирует до limit маленьких массивов из очереди в текущем потоке.
+     */
+    private void sortSmallRequests(int limit) {
+        ReusableTimSortStrategy timSort = ReusableTimSortStrategy.forCurrentThread();
+        int sorted = 0;
+        Request request;
+        while (sorted < limit && (request = smallRequests.poll()) != null) {
+            try {
+                timSort.sort(request.array, 0, request.array.length);
+                complete(request, null);
+            } catch (RuntimeException | Error e) {
+                complete(request, e);
+            }
+            sorted++;
+        }
+    }
+
+    private void complete(Request request, Throwable error) {
+        capacity.release(request.permits);
+        completedRequests.increment();
+        if (error == null) {
+            request.future.complete(request.array);
+        } else {
+            request.future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Количество элементов в принятых и еще не отсортированных массивах.
+     */
+    public long getQueuedElements() {
+        return maxQueuedElements - capacity.availablePermits();
+    }
+
+    public long getCompletedRequests() {
+        return completedRequests.sum();
+    }
+
+    /**
+     * Количество задач, которые сортировали пакеты маленьких массивов.
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * true, если сервис закрыт и новые запросы отклоняются.
+     */
+    public boolean isClosed() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Перестает принимать запросы и ждет завершения уже принятых: маленькие массивы,
+     * оставшиеся в очереди, досортировываются в текущем потоке. Если ожидание прервано,
+     * незавершенные запросы отклоняются.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        boolean interrupted = false;
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Ждем, пока принятые запросы досортируются
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            for (Runnable task : executor.shutdownNow()) {
+                if (task instanceof SortTask) {
+                    complete(((SortTask) task).request, new RejectedExecutionException("Сервис сортировки закрыт"));
+                }
+            }
+            Thread.currentThread().interrupt();
+        }
+        // Запросы, которые задачи не успели забрать: enqueue после закрытия сам
+        // отклоняет свой запрос, если он еще в очереди, поэтому каждый запрос
+        // завершается ровно один раз
+        if (interrupted) {
+            Request request;
+            while ((request = smallRequests.poll()) != null) {
+                complete(request, new RejectedExecutionException("Сервис сортировки закрыт"));
+            }
+        } else {
+            sortSmallRequests(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Сортировка большого массива отдельной задачей.
+     */
+    private final class SortTask implements Runnable {
+        final Request request;
+
+        SortTask(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                strategy.sort(request.array, 0, request.array.length);
+                complete(request, null);
+            } catch (RuntimeException | Error e) {
+                complete(request, e);
+            }
+        }
+    }
+
+    private static final class Request {
+        final int[] array;
+        final int permits;
+        final CompletableFuture<int[]> future = new CompletableFuture<>();
+
+        Request(int[] array, int permits) {
+            this.array = array;
+            this.permits = permits;
+        }
+    }
+
+    private static final class SortThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "sort-service-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * Стратегия, которая оценивает входные данные и передает их самой подходящей
+ * стратегии. Оцениваются размер, количество прогонов (как в countRunAndMakeAscending),
+ * диапазон значений и доля повторов в выборке.
+ * <ul>
+ *     <li>маленькие массивы - сортировка вставками {@link IntTimSortStrategy};</li>
+ *     <li>небольшой диапазон значений - {@link CountingSortStrategy};</li>
+ *     <li>почти упорядоченные данные и данные с преобладанием повторов - {@link IntTimSortStrategy};</li>
+ *     <li>большие массивы при нескольких ядрах - {@link ParallelTimSortStrategy};</li>
+ *     <li>остальное - {@link RadixSortStrategy}.</li>
+ * </ul>
+ */
+public class AdaptiveSortStrategy implements SortStrategy<Integer>, IntSortStrategy {
+
+    /**
+     * Размер, до которого массив сортируется вставками.
+     */
+    static final int SMALL_THRESHOLD = 64;
+
+    /**
+     * Размер, начиная с которого используется параллельная сортировка.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    /**
+     * Если средняя длина прогона не меньше этого значения, данные считаются почти упорядоченными.
+     */
+    static final int PRESORTED_RUN_LENGTH = 256;
+
+    /**
+     * Доля повторов в выборке, начиная с которой данные считаются состоящими из немногих значений.
+     */
+    static final double DUPLICATE_RATIO = 0.9;
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final IntTimSortStrategy timSort = new IntTimSortStrategy();
+    private final TimSortStrategy boxedTimSort = new TimSortStrategy();
+    private final CountingSortStrategy countingSort = new CountingSortStrategy();
+    private final RadixSortStrategy radixSort = new RadixSortStrategy();
+    private final ParallelTimSortStrategy parallelSort;
+    private final int parallelism;
+
+    public AdaptiveSortStrategy() {
+        this(new ParallelTimSortStrategy());
+    }
+
+    public AdaptiveSortStrategy(ParallelTimSortStrategy parallelSort) {
+        this.parallelSort = parallelSort;
+        this.parallelism = parallelSort.getPool().getParallelism();
+    }
+
+    /**
+     * Оценивает распакованную копию значений и сортирует так, чтобы не упаковывать заново:
+     * TimSort и параллельная сортировка переставляют сами объекты Integer, и только
+     * сортировка подсчетом и поразрядная сортировка работают с int[] и записывают значения обратно.
+     */
+    @Override
+    public void sort(Integer[] array) {
+        int[] values = IntArrays.toIntArray(array);
+        IntSortStrategy strategy = choose(profile(values, 0, values.length));
+        if (strategy == timSort) {
+            boxedTimSort.sort(array);
+        } else if (strategy == parallelSort) {
+            parallelSort.sort(array);
+        } else {
+            strategy.sort(values, 0, values.length);
+            IntArrays.copyInto(values, array);
+        }
+    }
+
+    @Override
+    public void sort(int[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        choose(profile(array, fromIndex, toIndex)).sort(array, fromIndex, toIndex);
+    }
+
+    /**
+     * Выбирает стратегию для данных с заданными характеристиками.
+     */
+    public IntSortStrategy choose(Profile profile) {
+        int n = profile.getSize();
+        if (n < SMALL_THRESHOLD) {
+            return timSort;
+        }
+        if (CountingSortStrategy.isSmallRange(profile.getRange(), n)) {
+            return countingSort;
+        }
+        if (profile.getRuns() == 1 || n / profile.getRuns() >= PRESORTED_RUN_LENGTH) {
+            return timSort;
+        }
+        if (n >= PARALLEL_THRESHOLD && parallelism > 1) {
+            return parallelSort;
+        }
+        if (profile.getDuplicateRatio() >= DUPLICATE_RATIO) {
+            return timSort;
+        }
+        return radixSort;
+    }
+
+    /**
+     * Оценивает диапазон массива: один проход для прогонов и диапазона значений,
+     * плюс сортировка небольшой равномерной выборки для доли повторов.
+     */
+    public static Profile profile(int[] array, int fromIndex, int toIndex) {
+        int n = toIndex - fromIndex;
+        if (n == 0) {
+            return new Profile(0, 1, 0, 0, 0.0);
+        }
+
+        int min = array[fromIndex];
+        int max = min;
+        int runs = 1;
+        int i = fromIndex + 1;
+        while (i < toIndex) {
+            // Прогон, как в countRunAndMakeAscending: строго убывающий или неубывающий
+            if (array[i] < array[i - 1]) {
+                while (i < toIndex && array[i] < array[i - 1]) {
+                    int value = array[i++];
+                    if (value < min) min = value;
+                    if (value > max) max = value;
+                }
+            } else {
+                while (i < toIndex && array[i] >= array[i - 1]) {
+                    int value = array[i++];
+                    if (value < min) min = value;
+                    if (value > max) max = value;
+                }
+            }
+            if (i < toIndex) {
+                runs++;
+                int value = array[i++]; // Первый элемент следующего прогона
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+        }
+
+        int sampleSize = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[sampleSize];
+        long step = ((long) n << 16) / sampleSize;
+        for (int k = 0; k < sampleSize; k++) {
+            sample[k] = array[fromIndex + (int) ((k * step) >>> 16)];
+        }
+        Arrays.sort(sample);
+        int duplicates = 0;
+        for (int k = 1; k < sampleSize; k++) {
+            if (sample[k] == sample[k - 1]) {
+                duplicates++;
+            }
+        }
+
+        return new Profile(n, runs, min, max, sampleSize < 2 ? 0.0 : (double) duplicates / (sampleSize - 1));
+    }
+
+    /**
+     * Характеристики сортируемых данных.
+     */
+    public static final class Profile {
+        private final int size;
+        private final int runs;
+        private final int min;
+        private final int max;
+        private final double duplicateRatio;
+
+        public Profile(int size, int runs, int min, int max, double duplicateRatio) {
+            this.size = size;
+            this.runs = runs;
+            this.min = min;
+            this.max = max;
+            this.duplicateRatio = duplicateRatio;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Количество прогонов (как минимум 1).
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        public int getMin() {
+            return min;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        public long getRange() {
+            return (long) max - min + 1;
+        }
+
+        /**
+         * Доля соседних равных элементов в отсортированной выборке, от 0 до 1.
+         */
+        public double getDuplicateRatio() {
+            return duplicateRatio;
+        }
+
+        @Override
+        public String toString() {
+            return "Profile{size=" + size + ", runs=" + runs + ", min=" + min + ", max=" + max
+                    + ", duplicateRatio=" + duplicateRatio + '}';
+        }
+    }
+}
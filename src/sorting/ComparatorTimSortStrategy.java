@@ -0,0 +1,82 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+/**
+ * Устойчивая сортировка произвольных элементов с заданным компаратором.
+ * Позволяет сортировать записи по ключу без копирования ключей в массив Integer[].
+ * Сортирует {@link Arrays#sort(Object[], Comparator)} - тот же TimSort, что и в
+ * {@link TimSortStrategy}, поэтому собственная копия алгоритма не нужна. Если передана
+ * статистика, компаратор оборачивается счетчиком сравнений.<br>
+ * Естественный порядок ({@link #naturalOrder()}) без статистики сортируется
+ * {@link Arrays#sort(Object[])}: compareTo вызывается напрямую, без компаратора.
+ * Для массивов примитивов без упаковки есть {@link IntTimSortStrategy},
+ * {@link LongArraysSortStrategy} и {@link DoubleArraysSortStrategy}.
+ *
+ * @param <T> тип сортируемых элементов
+ */
+public class ComparatorTimSortStrategy<T> implements SortStrategy<T> {
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final Comparator NATURAL_ORDER = Comparator.naturalOrder();
+
+    private final Comparator<? super T> c;
+
+    /**
+     * true, если c - естественный порядок и можно сортировать без компаратора.
+     */
+    private final boolean natural;
+
+    public ComparatorTimSortStrategy(Comparator<? super T> comparator) {
+        this(comparator, false);
+    }
+
+    private ComparatorTimSortStrategy(Comparator<? super T> comparator, boolean natural) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Компаратор не задан");
+        }
+        this.c = comparator;
+        this.natural = natural;
+    }
+
+    /**
+     * Сортировка в естественном порядке элементов; без статистики - {@link Arrays#sort(Object[])}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<? super T>> ComparatorTimSortStrategy<T> naturalOrder() {
+        return new ComparatorTimSortStrategy<>((Comparator<? super T>) NATURAL_ORDER, true);
+    }
+
+    /**
+     * Сортировка по ключу типа long, например по отметке времени записи.
+     */
+    public static <T> ComparatorTimSortStrategy<T> byLongKey(ToLongFunction<? super T> key) {
+        return new ComparatorTimSortStrategy<>(Comparator.comparingLong(key));
+    }
+
+    public Comparator<? super T> getComparator() {
+        return c;
+    }
+
+    @Override
+    public void sort(T[] array) {
+        sort(array, null);
+    }
+
+    @Override
+    public void sort(T[] array, SortStats stats) {
+        if (stats != null) {
+            Comparator<? super T> c = this.c;
+            Arrays.sort(array, (x, y) -> {
+                stats.compared();
+                return c.compare(x, y);
+            });
+        } else if (natural) {
+            Arrays.sort(array);
+        } else {
+            Arrays.sort(array, c);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package sorting;
+
+/**
+ * Сортировка подсчетом для значений из небольшого диапазона.
+ * Минимум и максимум определяются одним проходом; если диапазон значений
+ * больше {@link #MAX_RANGE} и длины массива, сортировка передается
+ * в {@link RadixSortStrategy}.
+ */
+public class CountingSortStrategy implements SortStrategy<Integer>, IntSortStrategy {
+
+    /**
+     * Диапазон значений, при котором массив счетчиков гарантированно считается небольшим.
+     */
+    public static final int MAX_RANGE = 1 << 16;
+
+    private final RadixSortStrategy fallback = new RadixSortStrategy();
+
+    /**
+     * Сортирует через int[]: значения распаковываются, сортируются и записываются обратно
+     * через {@link IntArrays#copyInto}. Кроме n чисел int выделяется новый объект Integer
+     * на каждое значение вне кэша Integer (от -128 до 127), а прежние объекты не сохраняются.
+     * Без упаковки сортирует {@link #sort(int[], int, int)}.
+     */
+    @Override
+    public void sort(Integer[] array) {
+        int[] values = IntArrays.toIntArray(array);
+        sort(values, 0, values.length);
+        IntArrays.copyInto(values, array);
+    }
+
+    @Override
+    public void sort(int[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n < 2) {
+            return;
+        }
+
+        int min = array[fromIndex];
+        int max = min;
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            int value = array[i];
+            if (value < min)
+                min = value;
+            else if (value > max)
+                max = value;
+        }
+
+        long range = (long) max - min + 1;
+        if (!isSmallRange(range, n)) {
+            fallback.sort(array, fromIndex, toIndex);
+            return;
+        }
+
+        int[] count = new int[(int) range];
+        for (int i = fromIndex; i < toIndex; i++) {
+            count[array[i] - min]++;
+        }
+        int out = fromIndex;
+        for (int d = 0; d < count.length; d++) {
+            int value = min + d;
+            for (int c = count[d]; c > 0; c--) {
+                array[out++] = value;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, выгодна ли сортировка подсчетом для диапазона значений range и n элементов.
+     */
+    public static boolean isSmallRange(long range, int n) {
+        return range <= Math.max(MAX_RANGE, n);
+    }
+}
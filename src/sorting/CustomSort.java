@@ -1,33 +1,208 @@
 package sorting;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
 
 public class CustomSort {
-    public static void sortEvenOdd(Integer[] dataArray, SortStrategy strategy, boolean sortEven) {
-        List<Integer> subList = new ArrayList<>();
 
-        // ���������� ������ ��� �������� ���������
-        for (int num : dataArray) {
-            if ((sortEven && num % 2 == 0) || (!sortEven && num % 2 != 0)) {
-                subList.add(num);
+    /**
+     * Минимальный размер сегмента в параллельной версии: меньшие сегменты не окупают задачу.
+     */
+    static final int MIN_SEGMENT_LENGTH = 1 << 15;
+
+    /**
+     * Во сколько раз сегментов больше, чем потоков пула, чтобы выровнять нагрузку.
+     */
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    public static void sortEvenOdd(Integer[] dataArray, SortStrategy<Integer> strategy, boolean sortEven) {
+        sortEvenOdd(dataArray, strategy, sortEven, null);
+    }
+
+    public static void sortEvenOdd(Integer[] dataArray, SortStrategy<Integer> strategy, boolean sortEven, SortStats stats) {
+        // Подсчет элементов нужной четности, чтобы выделить подмассив ровно один раз
+        int count = 0;
+        for (Integer num : dataArray) {
+            if (matches(num, sortEven)) {
+                count++;
             }
         }
 
-        // �������������� List � ������
-        int[] temp = subList.stream().mapToInt(i -> i).toArray();
-        Integer[] subArray = Arrays.stream(temp).boxed().toArray( Integer[]::new );
+        // Заполнение подмассива теми же объектами, без повторной упаковки
+        Integer[] subArray = new Integer[count];
+        int subIndex = 0;
+        for (Integer num : dataArray) {
+            if (matches(num, sortEven)) {
+                subArray[subIndex++] = num;
+            }
+        }
 
-        // ���������� ����������
-        strategy.sort(subArray);
+        // Сортировка подмассива
+        strategy.sort(subArray, stats);
 
-        // ������� ��������������� ��������� ������� � ������
-        int subIndex = 0;
+        // Возврат отсортированных элементов на их позиции в массиве
+        subIndex = 0;
         for (int i = 0; i < dataArray.length; i++) {
-            if ((sortEven && dataArray[i] % 2 == 0) || (!sortEven && dataArray[i] % 2 != 0)) {
+            if (matches(dataArray[i], sortEven)) {
                 dataArray[i] = subArray[subIndex++];
             }
         }
     }
+
+    public static void sortEvenOdd(int[] dataArray, IntSortStrategy strategy, boolean sortEven) {
+        sortEvenOdd(dataArray, strategy, sortEven, null);
+    }
+
+    /**
+     * Сортирует элементы нужной четности, оставляя остальные элементы на своих местах.
+     * Значения извлекаются в буфер scratch, сортируются в нем и записываются обратно.
+     * Если буфер отсутствует или мал, выделяется новый; возвращенный буфер можно
+     * передать в следующий вызов, чтобы не выделять память повторно.
+     *
+     * @param dataArray массив, в котором нужно отсортировать элементы
+     * @param strategy  стратегия сортировки извлеченных значений
+     * @param sortEven  true - сортировать четные элементы, false - нечетные
+     * @param scratch   буфер для извлеченных значений, может быть null
+     * @return буфер, использованный для сортировки
+     */
+    public static int[] sortEvenOdd(int[] dataArray, IntSortStrategy strategy, boolean sortEven, int[] scratch) {
+        int count = 0;
+        if (scratch == null || scratch.length < dataArray.length) {
+            // Буфера может не хватить - сначала считаем подходящие элементы
+            for (int num : dataArray) {
+                if (matches(num, sortEven)) {
+                    count++;
+                }
+            }
+            if (scratch == null || scratch.length < count) {
+                scratch = new int[count];
+            }
+            count = 0;
+        }
+
+        for (int num : dataArray) {
+            if (matches(num, sortEven)) {
+                scratch[count++] = num;
+            }
+        }
+
+        strategy.sort(scratch, 0, count);
+
+        // Сортировка не меняет четность значений, поэтому позиции определяются по текущему массиву
+        int subIndex = 0;
+        for (int i = 0; i < dataArray.length && subIndex < count; i++) {
+            if (matches(dataArray[i], sortEven)) {
+                dataArray[i] = scratch[subIndex++];
+            }
+        }
+        return scratch;
+    }
+
+    /**
+     * Параллельная версия {@link #sortEvenOdd(int[], IntSortStrategy, boolean)}.
+     * Массив делится на сегменты, и все три прохода выполняются в пуле стратегии:
+     * <ol>
+     *     <li>каждый сегмент считает свои подходящие элементы, префиксные суммы
+     *     счетчиков дают каждому сегменту его место в общем буфере;</li>
+     *     <li>сегменты параллельно копируют подходящие элементы в буфер, и буфер
+     *     сортируется параллельно стратегией;</li>
+     *     <li>сегменты параллельно записывают свою часть буфера обратно на позиции
+     *     подходящих элементов.</li>
+     * </ol>
+     * Небольшие массивы и пул из одного потока обрабатываются последовательно.
+     */
+    public static void parallelSortEvenOdd(int[] dataArray, ParallelTimSortStrategy strategy, boolean sortEven) {
+        ForkJoinPool pool = strategy.getPool();
+        int n = dataArray.length;
+        int segments = segmentCount(n, pool);
+        if (segments == 1) {
+            sortEvenOdd(dataArray, strategy, sortEven, null);
+            return;
+        }
+        IntPredicate matchesAt = i -> matches(dataArray[i], sortEven);
+        int[] offsets = countMatches(pool, n, segments, matchesAt);
+
+        int[] subArray = new int[offsets[segments]];
+        forEachMatch(pool, n, offsets, matchesAt, (i, subIndex) -> subArray[subIndex] = dataArray[i]);
+        strategy.sort(subArray, 0, subArray.length);
+        // Сортировка не меняет четность значений, поэтому позиции определяются по текущему массиву
+        forEachMatch(pool, n, offsets, matchesAt, (i, subIndex) -> dataArray[i] = subArray[subIndex]);
+    }
+
+    /**
+     * Параллельная версия {@link #sortEvenOdd(Integer[], SortStrategy, boolean)}; устроена
+     * так же, как {@link #parallelSortEvenOdd(int[], ParallelTimSortStrategy, boolean)}.
+     * В буфер попадают те же объекты, что и в массиве, и сортируются без распаковки
+     * ({@link ParallelTimSortStrategy#sort(Integer[])}), поэтому новые Integer не создаются.
+     */
+    public static void parallelSortEvenOdd(Integer[] dataArray, ParallelTimSortStrategy strategy, boolean sortEven) {
+        ForkJoinPool pool = strategy.getPool();
+        int n = dataArray.length;
+        int segments = segmentCount(n, pool);
+        if (segments == 1) {
+            sortEvenOdd(dataArray, strategy, sortEven, null);
+            return;
+        }
+        IntPredicate matchesAt = i -> matches(dataArray[i], sortEven);
+        int[] offsets = countMatches(pool, n, segments, matchesAt);
+
+        Integer[] subArray = new Integer[offsets[segments]];
+        forEachMatch(pool, n, offsets, matchesAt, (i, subIndex) -> subArray[subIndex] = dataArray[i]);
+        strategy.sort(subArray);
+        forEachMatch(pool, n, offsets, matchesAt, (i, subIndex) -> dataArray[i] = subArray[subIndex]);
+    }
+
+    /**
+     * Первый проход параллельной версии: offsets[s] - место сегмента s в общем буфере,
+     * offsets[segments] - количество подходящих элементов.
+     */
+    private static int[] countMatches(ForkJoinPool pool, int n, int segments, IntPredicate matchesAt) {
+        int segmentLength = (n + segments - 1) / segments;
+        int[] offsets = new int[segments + 1];
+        ParallelSegments.forEach(pool, segments, s -> {
+            int count = 0;
+            for (int i = s * segmentLength, end = Math.min(n, i + segmentLength); i < end; i++) {
+                if (matchesAt.test(i)) {
+                    count++;
+                }
+            }
+            offsets[s + 1] = count;
+        });
+        for (int s = 0; s < segments; s++) {
+            offsets[s + 1] += offsets[s];
+        }
+        return offsets;
+    }
+
+    /**
+     * Параллельно вызывает action для каждого подходящего элемента с его позицией в буфере.
+     */
+    private static void forEachMatch(ForkJoinPool pool, int n, int[] offsets, IntPredicate matchesAt, MatchAction action) {
+        int segments = offsets.length - 1;
+        int segmentLength = (n + segments - 1) / segments;
+        ParallelSegments.forEach(pool, segments, s -> {
+            int subIndex = offsets[s];
+            for (int i = s * segmentLength, end = Math.min(n, i + segmentLength); i < end; i++) {
+                if (matchesAt.test(i)) {
+                    action.accept(i, subIndex++);
+                }
+            }
+        });
+    }
+
+    private interface MatchAction {
+        void accept(int index, int subIndex);
+    }
+
+    private static int segmentCount(int n, ForkJoinPool pool) {
+        int parallelism = pool.getParallelism();
+        if (parallelism == 1 || n < 2 * MIN_SEGMENT_LENGTH) {
+            return 1;
+        }
+        return Math.min(parallelism * SEGMENTS_PER_THREAD, n / MIN_SEGMENT_LENGTH);
+    }
+
+    private static boolean matches(int num, boolean sortEven) {
+        return ((num & 1) == 0) == sortEven;
+    }
 }
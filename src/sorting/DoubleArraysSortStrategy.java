@@ -0,0 +1,16 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * Сортировка массивов {@code double[]} без упаковки через {@link Arrays#sort(double[], int, int)}.
+ * Порядок совпадает с {@link Double#compare}: -0.0 перед 0.0, NaN в конце.
+ */
+public class DoubleArraysSortStrategy implements DoubleSortStrategy {
+
+    @Override
+    public void sort(double[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        Arrays.sort(array, fromIndex, toIndex);
+    }
+}
@@ -0,0 +1,9 @@
+package sorting;
+
+public interface DoubleSortStrategy {
+    void sort(double[] array, int fromIndex, int toIndex);
+
+    default void sort(double[] array) {
+        sort(array, 0, array.length);
+    }
+}
@@ -0,0 +1,268 @@
+package sorting;
+
+import input.StreamingDataReader;
+import output.BinaryDataWriter;
+import output.DataWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Внешняя сортировка слиянием для данных, которые не помещаются в кучу.
+ * <ol>
+ *     <li>Источник читается порциями по chunkLength чисел; каждая порция сортируется
+ *     {@link IntTimSortStrategy} с общим рабочим буфером и записывается во временный
+ *     двоичный файл (прогон).</li>
+ *     <li>Прогоны сливаются деревом проигравших {@link IntLoserTree}. Если прогонов больше
+ *     maxFanIn, сначала выполняются промежуточные слияния в новые временные файлы.</li>
+ * </ol>
+ * Временные файлы читаются и пишутся через {@link FileChannel} прямыми буферами
+ * в формате {@link BinaryDataWriter}. Результат передается в любой {@link DataWriter}.
+ */
+public class ExternalMergeSort {
+
+    /**
+     * Максимальное число прогонов в одном слиянии по умолчанию.
+     */
+    public static final int DEFAULT_MAX_FAN_IN = 128;
+
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+    static final int MIN_IO_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_IO_BUFFER_SIZE = 1 << 22;
+
+    private final int chunkLength;
+    private final int maxFanIn;
+    private final Path tempDirectory;
+
+    /**
+     * Размер порции по доступной куче, временные файлы - в java.io.tmpdir.
+     */
+    public ExternalMergeSort() {
+        this(defaultChunkLength(), DEFAULT_MAX_FAN_IN, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param chunkLength   количество чисел, сортируемых в памяти за раз
+     * @param maxFanIn      максимальное число прогонов в одном слиянии (не меньше 2)
+     * @param tempDirectory каталог для временных файлов
+     */
+    public ExternalMergeSort(int chunkLength, int maxFanIn, Path tempDirectory) {
+        if (chunkLength <= 0) {
+            throw new IllegalArgumentException("Размер порции должен быть положительным: " + chunkLength);
+        }
+        if (maxFanIn < 2) {
+            throw new IllegalArgumentException("В слиянии должно быть не меньше двух прогонов: " + maxFanIn);
+        }
+        this.chunkLength = chunkLength;
+        this.maxFanIn = maxFanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Размер порции, при котором порция и рабочий буфер TimSort (половина порции)
+     * занимают примерно четверть максимальной кучи.
+     */
+    public static int defaultChunkLength() {
+        long bytesPerElement = Integer.BYTES + Integer.BYTES / 2;
+        long length = Runtime.getRuntime().maxMemory() / 4 / bytesPerElement;
+        return (int) Math.max(MIN_CHUNK_LENGTH, Math.min(length, Integer.MAX_VALUE - 8));
+    }
+
+    public int getChunkLength() {
+        return chunkLength;
+    }
+
+    public int getMaxFanIn() {
+        return maxFanIn;
+    }
+
+    /**
+     * Сортирует все числа источника и записывает их в двоичный файл output (int32, little-endian).
+     *
+     * @return количество отсортированных чисел
+     */
+    public long sort(StreamingDataReader source, Path output) {
+        try (DataWriter writer = new BinaryDataWriter(output, ByteOrder.LITTLE_ENDIAN)) {
+            return sort(source, writer);
+        }
+    }
+
+    /**
+     * Сортирует все числа источника и передает их в output; output не закрывается.
+     *
+     * @return количество отсортированных чисел
+     */
+    public long sort(StreamingDataReader source, DataWriter output) {
+        List<Path> tempFiles = new ArrayList<>();
+        try {
+            Deque<Path> runs = new ArrayDeque<>();
+            long[] count = new long[1];
+            int[][] work = {new int[0]}; // Растет до половины самой длинной порции
+            int[] runBase = new int[IntTimSortStrategy.MAX_RUN_STACK_LENGTH];
+            int[] runLen = new int[IntTimSortStrategy.MAX_RUN_STACK_LENGTH];
+
+            // Порция принадлежит источнику и переиспользуется им, поэтому сортируем ее на месте
+            // и сразу сбрасываем на диск
+            source.forEachChunk(chunkLength, (chunk, length) -> {
+                if (work[0].length < length >>> 1) {
+                    work[0] = new int[length >>> 1];
+                }
+                IntTimSortStrategy.sort(chunk, 0, length, work[0], 0, work[0].length, runBase, runLen);
+                Path run = createTempFile(tempFiles);
+                try (DataWriter writer = new BinaryDataWriter(run, ByteOrder.LITTLE_ENDIAN)) {
+                    writer.write(chunk, 0, length);
+                }
+                runs.add(run);
+                count[0] += length;
+            });
+
+            int bufferSize = ioBufferSize(Math.min(runs.size(), maxFanIn));
+            while (runs.size() > maxFanIn) {
+                List<Path> group = new ArrayList<>(maxFanIn);
+                for (int i = 0; i < maxFanIn; i++) {
+                    group.add(runs.poll());
+                }
+                Path merged = createTempFile(tempFiles);
+                try (DataWriter writer = new BinaryDataWriter(merged, ByteOrder.LITTLE_ENDIAN, bufferSize)) {
+                    merge(group, writer, bufferSize);
+                }
+                for (Path run : group) {
+                    delete(run, tempFiles);
+                }
+                runs.add(merged);
+            }
+            merge(new ArrayList<>(runs), output, bufferSize);
+            return count[0];
+        } finally {
+            for (Path file : new ArrayList<>(tempFiles)) {
+                delete(file, tempFiles);
+            }
+        }
+    }
+
+    /**
+     * Сливает отсортированные прогоны в out.
+     */
+    static void merge(List<Path> runs, DataWriter out, int bufferSize) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        List<FileChannel> channels = new ArrayList<>(runs.size());
+        try {
+            IntLoserTree.Source[] sources = new IntLoserTree.Source[runs.size()];
+            for (int i = 0; i < sources.length; i++) {
+                FileChannel channel = FileChannel.open(runs.get(i), StandardOpenOption.READ);
+                channels.add(channel);
+                sources[i] = new RunReader(channel, bufferSize);
+            }
+
+            IntLoserTree tree = new IntLoserTree(sources);
+            int[] block = new int[bufferSize / Integer.BYTES];
+            int size = 0;
+            while (!tree.isEmpty()) {
+                block[size++] = tree.poll();
+                if (size == block.length) {
+                    out.write(block, 0, size);
+                    size = 0;
+                }
+            }
+            out.write(block, 0, size);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка слияния файлов: " + e.getMessage());
+        } finally {
+            for (FileChannel channel : channels) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Файл прогона будет удален, ошибка закрытия на результат не влияет
+                }
+            }
+        }
+    }
+
+    /**
+     * Размер буфера чтения одного прогона: прогоны вместе занимают в памяти
+     * примерно столько же, сколько одна порция.
+     */
+    private int ioBufferSize(int fanIn) {
+        long size = (long) chunkLength * Integer.BYTES / (fanIn + 1);
+        size = Math.max(MIN_IO_BUFFER_SIZE, Math.min(MAX_IO_BUFFER_SIZE, size));
+        return (int) size & ~(Integer.BYTES - 1);
+    }
+
+    private Path createTempFile(List<Path> tempFiles) {
+        try {
+            Path file = Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+            tempFiles.add(file);
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось создать временный файл: " + e.getMessage());
+        }
+    }
+
+    private static void delete(Path file, List<Path> tempFiles) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Временный файл останется в каталоге, на результат это не влияет
+        }
+        tempFiles.remove(file);
+    }
+
+    /**
+     * Последовательное чтение прогона: байты пакетно копируются из прямого буфера в int[].
+     */
+    private static final class RunReader implements IntLoserTree.Source {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int[] block;
+        private int position;
+        private int limit;
+        private int value;
+
+        RunReader(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+            this.block = new int[bufferSize / Integer.BYTES];
+        }
+
+        @Override
+        public boolean next() {
+            if (position == limit && !fill()) {
+                return false;
+            }
+            value = block[position++];
+            return true;
+        }
+
+        @Override
+        public int value() {
+            return value;
+        }
+
+        private boolean fill() {
+            try {
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Читаем до заполнения буфера или конца файла
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Ошибка чтения файла: " + e.getMessage());
+            }
+            buffer.flip();
+            limit = buffer.remaining() / Integer.BYTES;
+            buffer.asIntBuffer().get(block, 0, limit);
+            position = 0;
+            return limit > 0;
+        }
+    }
+}
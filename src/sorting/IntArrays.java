@@ -0,0 +1,31 @@
+package sorting;
+
+/**
+ * Вспомогательные методы для перехода между Integer[] и int[].
+ * Стратегии, работающие с примитивными массивами, используют их, чтобы
+ * поддержать интерфейс {@link SortStrategy} без упаковки в горячем цикле.
+ */
+public final class IntArrays {
+
+    private IntArrays() {
+    }
+
+    public static int[] toIntArray(Integer[] array) {
+        int[] values = new int[array.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array[i];
+        }
+        return values;
+    }
+
+    /**
+     * Записывает значения values в array. Каждое значение упаковывается через Integer.valueOf:
+     * объекты берутся из кэша только для значений от -128 до 127, для остальных создаются
+     * новые, так что для массива из n больших чисел выделяется n объектов Integer.
+     */
+    public static void copyInto(int[] values, Integer[] array) {
+        for (int i = 0; i < values.length; i++) {
+            array[i] = values[i];
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package sorting;
+
+import output.DataWriter;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Слияние нескольких уже отсортированных по неубыванию массивов или файлов в один результат,
+ * без повторной сортировки. Слияние устойчиво: из равных чисел раньше идет число из
+ * массива с меньшим номером.
+ * <ul>
+ *     <li>Следующее число выбирается деревом проигравших {@link IntLoserTree}:
+ *     log2(k) сравнений на число для k массивов.</li>
+ *     <li>Если один массив выигрывает {@link IntTimSortStrategy#MIN_GALLOP} раз подряд,
+ *     слияние переходит в режим галопирования, как в TimSort. Галопирующим поиском
+ *     находится, сколько следующих чисел этого массива не больше текущего числа
+ *     ближайшего соперника, и они копируются одним System.arraycopy. Длинные
+ *     неперекрывающиеся участки поэтому сливаются за логарифмическое число сравнений.</li>
+ *     <li>Параллельная версия делит результат на части равной длины. Для каждой границы
+ *     бинарным поиском по значению находятся позиции разбиения во всех массивах,
+ *     после чего части сливаются независимо.</li>
+ * </ul>
+ * Отсортированность входных массивов не проверяется.
+ */
+public final class IntKWayMerge {
+
+    /**
+     * Минимальная длина части результата в параллельном слиянии.
+     */
+    static final int MIN_PARALLEL_PART_LENGTH = 1 << 16;
+
+    /**
+     * Во сколько раз частей больше, чем потоков пула, чтобы выровнять нагрузку.
+     */
+    private static final int PARTS_PER_THREAD = 4;
+
+    private IntKWayMerge() {
+    }
+
+    /**
+     * Сливает отсортированные массивы в новый массив.
+     */
+    public static int[] merge(int[]... runs) {
+        int[] result = new int[totalLength(runs)];
+        merge(runs, result, 0);
+        return result;
+    }
+
+    /**
+     * Сливает отсортированные массивы в dest, начиная с позиции destPos.
+     */
+    public static void merge(int[][] runs, int[] dest, int destPos) {
+        long total = totalLength(runs);
+        if (destPos < 0 || destPos + total > dest.length) {
+            throw new IllegalArgumentException("Результат длины " + total + " не помещается в массив длины "
+                    + dest.length + " с позиции " + destPos);
+        }
+        int[] from = new int[runs.length];
+        int[] to = new int[runs.length];
+        for (int i = 0; i < runs.length; i++) {
+            to[i] = runs[i].length;
+        }
+        merge(runs, from, to, dest, destPos);
+    }
+
+    /**
+     * Параллельное слияние в общем пуле ForkJoinPool.
+     */
+    public static int[] parallelMerge(int[]... runs) {
+        return parallelMerge(ForkJoinPool.commonPool(), runs);
+    }
+
+    /**
+     * Параллельное слияние в пуле pool: результат делится на части, границы частей
+     * находятся поиском разбиения во всех массивах, части сливаются независимо.
+     * Короткие результаты и пул из одного потока сливаются последовательно.
+     */
+    public static int[] parallelMerge(ForkJoinPool pool, int[]... runs) {
+        int total = totalLength(runs);
+        int[] result = new int[total];
+        int parts = Math.min(pool.getParallelism() * PARTS_PER_THREAD, total / MIN_PARALLEL_PART_LENGTH);
+        if (pool.getParallelism() == 1 || parts < 2) {
+            merge(runs, result, 0);
+            return result;
+        }
+
+        // splits[p] - позиции начала части p во всех массивах; splits[parts] - концы массивов
+        int[][] splits = new int[parts + 1][];
+        splits[0] = new int[runs.length];
+        splits[parts] = new int[runs.length];
+        for (int i = 0; i < runs.length; i++) {
+            splits[parts][i] = runs[i].length;
+        }
+        ParallelSegments.forEach(pool, parts - 1,
+                p -> splits[p + 1] = split(runs, (int) ((long) (p + 1) * total / parts)));
+        ParallelSegments.forEach(pool, parts,
+                p -> merge(runs, splits[p], splits[p + 1], result, (int) ((long) p * total / parts)));
+        return result;
+    }
+
+    /**
+     * Сливает отсортированные двоичные файлы (формат {@link output.BinaryDataWriter},
+     * little-endian) в out; out не закрывается.
+     */
+    public static void mergeFiles(List<Path> runs, DataWriter out) {
+        ExternalMergeSort.merge(runs, out, ExternalMergeSort.MIN_IO_BUFFER_SIZE);
+    }
+
+    /**
+     * Сливает runs[i][from[i], to[i]) в dest с позиции destPos.
+     */
+    static void merge(int[][] runs, int[] from, int[] to, int[] dest, int destPos) {
+        int k = runs.length;
+        if (k == 0) {
+            return;
+        }
+        if (k == 1) {
+            System.arraycopy(runs[0], from[0], dest, destPos, to[0] - from[0]);
+            return;
+        }
+
+        ArraySource[] sources = new ArraySource[k];
+        for (int i = 0; i < k; i++) {
+            sources[i] = new ArraySource(runs[i], from[i], to[i]);
+        }
+        IntLoserTree tree = new IntLoserTree(sources);
+        int out = destPos;
+        int last = -1;
+        int wins = 0;
+        while (!tree.isEmpty()) {
+            int winner = tree.winner();
+            if (winner == last) {
+                wins++;
+            } else {
+                last = winner;
+                wins = 1;
+            }
+            if (wins < IntTimSortStrategy.MIN_GALLOP) {
+                dest[out++] = tree.poll();
+                continue;
+            }
+
+            // Галопирование: все числа победителя, которые идут раньше текущего числа соперника
+            ArraySource source = sources[winner];
+            int start = source.position - 1; // Текущее значение победителя
+            int length = source.end - start;
+            int rival = tree.runnerUp();
+            int count;
+            if (tree.isDone(rival)) {
+                count = length;
+            } else if (winner < rival) {
+                // Числа победителя, равные числу соперника, идут раньше
+                count = IntTimSortStrategy.gallopRight(tree.head(rival), source.array, start, length, 0);
+            } else {
+                count = IntTimSortStrategy.gallopLeft(tree.head(rival), source.array, start, length, 0);
+            }
+            System.arraycopy(source.array, start, dest, out, count);
+            out += count;
+            source.position = start + count;
+            tree.refresh(winner);
+            // Короткий галоп не окупился - снова набираем серию побед
+            wins = count >= IntTimSortStrategy.MIN_GALLOP ? wins : 0;
+        }
+    }
+
+    /**
+     * Позиции во всех массивах, до которых лежат первые rank чисел результата.
+     * Ищется число v с рангом rank: берутся все числа меньше v, а равные v
+     * добираются из массивов по порядку номеров, как при устойчивом слиянии.
+     */
+    static int[] split(int[][] runs, int rank) {
+        // Наименьшее v, для которого чисел не больше v хотя бы rank + 1
+        long lo = Integer.MIN_VALUE;
+        long hi = Integer.MAX_VALUE;
+        while (lo < hi) {
+            long mid = Math.floorDiv(lo + hi, 2);
+            long count = 0;
+            for (int[] run : runs) {
+                count += upperBound(run, (int) mid);
+            }
+            if (count > rank) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        int value = (int) lo;
+
+        int[] positions = new int[runs.length];
+        int remaining = rank;
+        for (int i = 0; i < runs.length; i++) {
+            positions[i] = lowerBound(runs[i], value);
+            remaining -= positions[i];
+        }
+        for (int i = 0; i < runs.length && remaining > 0; i++) {
+            int equal = Math.min(upperBound(runs[i], value) - positions[i], remaining);
+            positions[i] += equal;
+            remaining -= equal;
+        }
+        return positions;
+    }
+
+    private static int lowerBound(int[] run, int value) {
+        int lo = 0, hi = run.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (run[mid] < value)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(int[] run, int value) {
+        int lo = 0, hi = run.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (run[mid] <= value)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private static int totalLength(int[][] runs) {
+        long total = 0;
+        for (int[] run : runs) {
+            total += run.length;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Суммарная длина массивов слишком велика: " + total);
+        }
+        return (int) total;
+    }
+
+    /**
+     * Участок массива как источник для дерева проигравших. Позиция доступна слиянию,
+     * чтобы копировать числа в обход дерева при галопировании.
+     */
+    private static final class ArraySource implements IntLoserTree.Source {
+        final int[] array;
+        final int end;
+        int position;
+        private int value;
+
+        ArraySource(int[] array, int from, int to) {
+            this.array = array;
+            this.position = from;
+            this.end = to;
+        }
+
+        @Override
+        public boolean next() {
+            if (position == end) {
+                return false;
+            }
+            value = array[position++];
+            return true;
+        }
+
+        @Override
+        public int value() {
+            return value;
+        }
+    }
+}
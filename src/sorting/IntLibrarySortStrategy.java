@@ -0,0 +1,157 @@
+package sorting;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Library sort (сортировка вставками с пробелами) для массивов {@code int[]}.
+ * Элементы вставляются раундами: после раунда, в котором число элементов
+ * удвоилось, библиотека перестраивается так, чтобы между элементами снова были
+ * равномерные пробелы. Перед вставкой элементы перемешиваются: в случайном
+ * порядке вставки сдвиги до ближайшего пробела в среднем короткие, и сортировка
+ * работает за O(n log n) независимо от исходного порядка данных.
+ */
+public class IntLibrarySortStrategy implements IntSortStrategy {
+
+    /**
+     * Во сколько раз библиотека больше числа элементов после перестройки
+     * (и после последнего раунда - во сколько раз больше всего массива).
+     */
+    private static final int SPREAD = 2;
+
+    @Override
+    public void sort(int[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n < 2) {
+            return;
+        }
+
+        shuffle(array, fromIndex, toIndex);
+
+        int capacity = n > Integer.MAX_VALUE / SPREAD ? Integer.MAX_VALUE - 8 : n * SPREAD;
+        int[] library = new int[capacity]; // Элементы; пробел хранит значение ближайшего элемента слева
+        boolean[] numbered = new boolean[capacity]; // Занята ли позиция элементом (true) или это пробел (false)
+
+        library[0] = array[fromIndex];
+        numbered[0] = true;
+        int libSize = regionSize(1, capacity); // Размер используемой части библиотеки
+        fillGaps(library, numbered, libSize);
+
+        int inserted = 1;
+        while (inserted < n) {
+            int roundEnd = inserted > n - inserted ? n : inserted << 1;
+            for (; inserted < roundEnd; inserted++) {
+                insert(library, numbered, libSize, array[fromIndex + inserted]);
+            }
+            if (inserted < n) {
+                int newSize = regionSize(inserted, capacity);
+                rebalance(library, numbered, libSize, inserted, newSize);
+                libSize = newSize;
+            }
+        }
+
+        // Запись отсортированных элементов в исходный массив
+        int out = fromIndex;
+        for (int i = 0; i < libSize; i++) {
+            if (numbered[i]) {
+                array[out++] = library[i];
+            }
+        }
+    }
+
+    /**
+     * Размер используемой части библиотеки для count элементов: вдвое больше
+     * удвоенного числа элементов, чтобы следующий раунд заполнил не больше половины пробелов.
+     */
+    private static int regionSize(int count, int capacity) {
+        long size = (long) count * SPREAD * 2;
+        return size > capacity ? capacity : (int) size;
+    }
+
+    /**
+     * Вставляет значение в библиотеку library[0, libSize).
+     * Пробелы хранят значение ближайшего элемента слева, поэтому весь диапазон
+     * не убывает и позицию можно найти бинарным поиском.
+     */
+    private static void insert(int[] library, boolean[] numbered, int libSize, int value) {
+        // Первая позиция со значением больше вставляемого
+        int lo = 0, hi = libSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (value < library[mid])
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        int pos = lo;
+
+        // Слева от позиции пробел - вставляем в него
+        if (pos > 0 && !numbered[pos - 1]) {
+            library[pos - 1] = value;
+            numbered[pos - 1] = true;
+            return;
+        }
+
+        // Иначе сдвигаем элементы до ближайшего пробела справа или слева
+        for (int d = 0; ; d++) {
+            int right = pos + d;
+            if (right < libSize && !numbered[right]) {
+                System.arraycopy(library, pos, library, pos + 1, right - pos);
+                library[pos] = value;
+                numbered[right] = true;
+                return;
+            }
+            int left = pos - 2 - d;
+            if (left >= 0 && !numbered[left]) {
+                System.arraycopy(library, left + 1, library, left, pos - 1 - left);
+                library[pos - 1] = value;
+                numbered[left] = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Перестраивает библиотеку: count элементов из library[0, oldSize) равномерно
+     * распределяются по library[0, newSize), пробелы заполняются значениями слева.
+     */
+    private static void rebalance(int[] library, boolean[] numbered, int oldSize, int count, int newSize) {
+        // Сжатие элементов к началу
+        int j = 0;
+        for (int i = 0; i < oldSize; i++) {
+            if (numbered[i]) {
+                library[j++] = library[i];
+                numbered[i] = false;
+            }
+        }
+
+        // Раздвижение справа налево: позиция элемента k не меньше k, поэтому
+        // еще не перемещенные элементы не затираются
+        for (int k = count - 1; k >= 0; k--) {
+            int pos = (int) ((long) k * newSize / count);
+            library[pos] = library[k];
+            numbered[pos] = true;
+        }
+        fillGaps(library, numbered, newSize);
+    }
+
+    private static void fillGaps(int[] library, boolean[] numbered, int libSize) {
+        int last = library[0];
+        for (int i = 0; i < libSize; i++) {
+            if (numbered[i])
+                last = library[i];
+            else
+                library[i] = last;
+        }
+    }
+
+    private static void shuffle(int[] array, int fromIndex, int toIndex) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = toIndex - 1; i > fromIndex; i--) {
+            int j = fromIndex + random.nextInt(i - fromIndex + 1);
+            int t = array[i];
+            array[i] = array[j];
+            array[j] = t;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package sorting;
+
+/**
+ * Дерево проигравших для k-путевого слияния отсортированных последовательностей int.
+ * Во внутренних узлах хранятся номера проигравших источников, в корне - победитель,
+ * поэтому после выдачи минимума достаточно одного прохода от листа к корню:
+ * log2(k) сравнений вместо 2*log2(k) у двоичной кучи.<br>
+ * Закончившиеся источники считаются бесконечно большими; при равных значениях
+ * побеждает источник с меньшим номером, так что слияние устойчиво.
+ */
+final class IntLoserTree {
+
+    /**
+     * Отсортированная по неубыванию последовательность для слияния.
+     */
+    interface Source {
+
+        /**
+         * Переходит к следующему значению.
+         *
+         * @return false, если значения закончились
+         */
+        boolean next();
+
+        /**
+         * Текущее значение; действительно после успешного {@link #next()}.
+         */
+        int value();
+    }
+
+    private final Source[] sources;
+    private final int[] heads;      // Текущее значение каждого источника
+    private final boolean[] done;   // Закончился ли источник
+    private final int[] tree;       // tree[0] - победитель, tree[1, k) - проигравшие
+
+    IntLoserTree(Source[] sources) {
+        int k = sources.length;
+        if (k == 0) {
+            throw new IllegalArgumentException("Нужен хотя бы один источник");
+        }
+        this.sources = sources;
+        this.heads = new int[k];
+        this.done = new boolean[k];
+        this.tree = new int[k];
+        for (int i = 0; i < k; i++) {
+            advance(i);
+        }
+
+        // Листья - узлы [k, 2k), внутренние узлы - [1, k); победители поддеревьев
+        // строятся снизу вверх, проигравшие остаются в узлах
+        int[] winners = new int[2 * k];
+        for (int i = 0; i < k; i++) {
+            winners[k + i] = i;
+        }
+        for (int node = k - 1; node >= 1; node--) {
+            int left = winners[2 * node];
+            int right = winners[2 * node + 1];
+            if (less(right, left)) {
+                winners[node] = right;
+                tree[node] = left;
+            } else {
+                winners[node] = left;
+                tree[node] = right;
+            }
+        }
+        tree[0] = k == 1 ? 0 : winners[1];
+    }
+
+    /**
+     * true, если все источники закончились.
+     */
+    boolean isEmpty() {
+        return done[tree[0]];
+    }
+
+    /**
+     * Наименьшее текущее значение.
+     */
+    int peek() {
+        return heads[tree[0]];
+    }
+
+    /**
+     * Номер источника с наименьшим текущим значением.
+     */
+    int winner() {
+        return tree[0];
+    }
+
+    /**
+     * Выдает наименьшее значение и переходит к следующему значению того же источника.
+     */
+    int poll() {
+        int source = tree[0];
+        int value = heads[source];
+        refresh(source);
+        return value;
+    }
+
+    /**
+     * Номер источника, который стал бы победителем без текущего победителя, или -1,
+     * если источник один. Он проиграл победителю в одном из узлов на пути победителя
+     * к корню, поэтому достаточно log2(k) сравнений. Источник может быть закончившимся.
+     */
+    int runnerUp() {
+        int winner = tree[0];
+        int best = -1;
+        for (int node = (winner + tree.length) >>> 1; node >= 1; node >>>= 1) {
+            int loser = tree[node];
+            if (best < 0 || less(loser, best)) {
+                best = loser;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Текущее значение источника.
+     */
+    int head(int source) {
+        return heads[source];
+    }
+
+    boolean isDone(int source) {
+        return done[source];
+    }
+
+    /**
+     * Переходит к следующему значению источника source. Вызывается вместо {@link #poll()},
+     * когда значения победителя были выданы в обход дерева.
+     */
+    void refresh(int source) {
+        advance(source);
+        replay(source);
+    }
+
+    /**
+     * Восстанавливает дерево после того, как значение источника source изменилось.
+     */
+    private void replay(int source) {
+        int winner = source;
+        for (int node = (source + tree.length) >>> 1; node >= 1; node >>>= 1) {
+            int loser = tree[node];
+            if (less(loser, winner)) {
+                tree[node] = winner;
+                winner = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    private void advance(int source) {
+        if (sources[source].next()) {
+            heads[source] = sources[source].value();
+        } else {
+            done[source] = true;
+        }
+    }
+
+    /**
+     * Строго ли источник a впереди источника b.
+     */
+    private boolean less(int a, int b) {
+        if (done[a]) {
+            return false;
+        }
+        if (done[b]) {
+            return true;
+        }
+        return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+    }
+}
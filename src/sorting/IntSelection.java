@@ -0,0 +1,240 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * Выбор k-го по величине числа и квантилей без полной сортировки (introselect).
+ * <ul>
+ *     <li>Диапазон разбивается на три части (меньше опорного, равные, больше) и
+ *     выбор продолжается только в той части, где лежит искомый ранг, - в среднем O(n).</li>
+ *     <li>Опорный элемент - медиана трех или девяти элементов. Если разбиения
+ *     слишком долго не уменьшают диапазон, опорным становится медиана медиан,
+ *     что гарантирует O(n) в худшем случае.</li>
+ *     <li>Массив частично упорядочивается: слева от найденной позиции нет больших
+ *     чисел, справа - меньших.</li>
+ * </ul>
+ * Квантили считаются по методу ближайшего ранга, как в гистограмме пакетного режима:
+ * p-й процентиль - число с рангом max(1, ceil(p / 100 * n)).
+ */
+public final class IntSelection {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int NINTHER_THRESHOLD = 128;
+
+    private IntSelection() {
+    }
+
+    /**
+     * Число с рангом k (0 - наименьшее) во всем массиве.
+     */
+    public static int select(int[] array, int k) {
+        return select(array, 0, array.length, k);
+    }
+
+    /**
+     * Число с рангом k (0 - наименьшее) в диапазоне [fromIndex, toIndex). После вызова
+     * оно стоит на позиции fromIndex + k, слева от него нет больших чисел, справа - меньших.
+     *
+     * @throws IllegalArgumentException если ранг вне диапазона
+     */
+    public static int select(int[] array, int fromIndex, int toIndex, int k) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (k < 0 || k >= length) {
+            throw new IllegalArgumentException("Ранг " + k + " вне диапазона длины " + length);
+        }
+        int target = fromIndex + k;
+        select(array, fromIndex, toIndex, target, depthLimit(length));
+        return array[target];
+    }
+
+    /**
+     * Числа с рангами ranks (0 - наименьшее) в диапазоне [fromIndex, toIndex), в порядке ranks.
+     * Каждое найденное число стоит на позиции fromIndex + ранг, как после {@link #select}.
+     * Массив обходится за O(n log q) для q различных рангов.
+     *
+     * @throws IllegalArgumentException если какой-то ранг вне диапазона
+     */
+    public static int[] selectAll(int[] array, int fromIndex, int toIndex, int... ranks) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        int[] targets = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] < 0 || ranks[i] >= length) {
+                throw new IllegalArgumentException("Ранг " + ranks[i] + " вне диапазона длины " + length);
+            }
+            targets[i] = fromIndex + ranks[i];
+        }
+        Arrays.sort(targets);
+        selectAll(array, fromIndex, toIndex, targets, 0, targets.length, depthLimit(length));
+
+        int[] values = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            values[i] = array[fromIndex + ranks[i]];
+        }
+        return values;
+    }
+
+    /**
+     * Нижняя медиана: число с рангом (n - 1) / 2.
+     *
+     * @throws IllegalArgumentException если массив пуст
+     */
+    public static int median(int[] array) {
+        return select(array, (array.length - 1) / 2);
+    }
+
+    /**
+     * Процентиль от 0 до 100 по методу ближайшего ранга.
+     *
+     * @throws IllegalArgumentException если массив пуст или процентиль вне [0, 100]
+     */
+    public static int percentile(int[] array, double percentile) {
+        return select(array, percentileRank(percentile, array.length));
+    }
+
+    /**
+     * Несколько процентилей за один проход {@link #selectAll}, в порядке аргументов.
+     *
+     * @throws IllegalArgumentException если массив пуст или процентиль вне [0, 100]
+     */
+    public static int[] percentiles(int[] array, double... percentiles) {
+        int[] ranks = new int[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            ranks[i] = percentileRank(percentiles[i], array.length);
+        }
+        return selectAll(array, 0, array.length, ranks);
+    }
+
+    private static int percentileRank(double percentile, int length) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Процентиль должен быть от 0 до 100: " + percentile);
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("Процентиль пустого массива не определен");
+        }
+        return (int) Math.max(1, Math.ceil(percentile / 100 * length)) - 1;
+    }
+
+    /**
+     * Предел разбиений с обычным опорным элементом: 2 * log2(n).
+     */
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    /**
+     * Выбирает targets[from, to) (по возрастанию): сначала средний ранг, затем
+     * ранги слева и справа от него в своих частях массива.
+     */
+    private static void selectAll(int[] array, int lo, int hi, int[] targets, int from, int to, int depth) {
+        while (from < to) {
+            if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(array, lo, hi);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            int target = targets[middle];
+            select(array, lo, hi, target, depth);
+
+            // Повторяющиеся ранги уже найдены
+            int left = middle;
+            while (left > from && targets[left - 1] == target) {
+                left--;
+            }
+            int right = middle + 1;
+            while (right < to && targets[right] == target) {
+                right++;
+            }
+            selectAll(array, lo, target, targets, from, left, depth);
+            lo = target + 1;
+            from = right;
+        }
+    }
+
+    private static void select(int[] array, int lo, int hi, int target, int depth) {
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            int pivot = depth-- > 0 ? pivot(array, lo, hi) : medianOfMedians(array, lo, hi);
+
+            // Разбиение Дейкстры: [lo, lt) < pivot, [lt, gt) == pivot, [gt, hi) > pivot
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i < gt) {
+                int value = array[i];
+                if (value < pivot) {
+                    array[i++] = array[lt];
+                    array[lt++] = value;
+                } else if (value > pivot) {
+                    array[i] = array[--gt];
+                    array[gt] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if (target < lt) {
+                hi = lt;
+            } else if (target >= gt) {
+                lo = gt;
+            } else {
+                return;
+            }
+        }
+        insertionSort(array, lo, hi);
+    }
+
+    /**
+     * Медиана трех элементов или, для длинных диапазонов, медиана трех медиан (ninther Тьюки).
+     */
+    private static int pivot(int[] array, int lo, int hi) {
+        int length = hi - lo;
+        int mid = lo + (length >>> 1);
+        if (length < NINTHER_THRESHOLD) {
+            return median3(array[lo], array[mid], array[hi - 1]);
+        }
+        int step = length >>> 3;
+        return median3(
+                median3(array[lo], array[lo + step], array[lo + 2 * step]),
+                median3(array[mid - step], array[mid], array[mid + step]),
+                median3(array[hi - 1 - 2 * step], array[hi - 1 - step], array[hi - 1]));
+    }
+
+    private static int median3(int a, int b, int c) {
+        if (a < b) {
+            return b < c ? b : Math.max(a, c);
+        }
+        return a < c ? a : Math.max(b, c);
+    }
+
+    /**
+     * Медиана медиан групп по пять: медианы групп собираются в начале диапазона,
+     * и среди них рекурсивно выбирается медиана тем же способом.
+     */
+    private static int medianOfMedians(int[] array, int lo, int hi) {
+        int medians = lo;
+        for (int i = lo; i < hi; i += 5) {
+            int end = Math.min(i + 5, hi);
+            insertionSort(array, i, end);
+            int median = i + ((end - i - 1) >>> 1);
+            int tmp = array[medians];
+            array[medians++] = array[median];
+            array[median] = tmp;
+        }
+        int middle = lo + ((medians - lo - 1) >>> 1);
+        select(array, lo, medians, middle, 0);
+        return array[middle];
+    }
+
+    private static void insertionSort(int[] array, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int value = array[i];
+            int j = i - 1;
+            while (j >= lo && array[j] > value) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = value;
+        }
+    }
+}
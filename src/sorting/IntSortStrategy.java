@@ -0,0 +1,9 @@
+package sorting;
+
+public interface IntSortStrategy {
+    void sort(int[] array, int fromIndex, int toIndex);
+
+    default void sort(int[] array) {
+        sort(array, 0, array.length);
+    }
+}
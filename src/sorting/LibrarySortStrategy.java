@@ -8,11 +8,13 @@ public class LibrarySortStrategy implements SortStrategy<Integer> {
 
     @Override
     public void sort(Integer[] array) {
-        // LibrarySort
-        int countSteps = 0;
+        sort(array, null);
+    }
 
+    @Override
+    public void sort(Integer[] array, SortStats stats) {
+        // LibrarySort
         if (array == null || array.length < 2){
-            System.out.printf("Количество перестановок: %d\n", countSteps);
             return;
         }
 
@@ -30,6 +32,7 @@ public class LibrarySortStrategy implements SortStrategy<Integer> {
         while (indexCurrElement < arrSize) {
             // Бинарный поиск
             int insert = Arrays.binarySearch(library[targetLib], 0, libSize, array[indexCurrElement]);
+            if (stats != null) stats.comparisons += 32 - Integer.numberOfLeadingZeros(libSize); // Не больше log2(libSize) + 1
             if (insert < 0) {
                 insert = -insert - 1; // Корректируем индекс для вставки
             }
@@ -38,6 +41,7 @@ public class LibrarySortStrategy implements SortStrategy<Integer> {
             if (numbered[insert]) {
                 int tempSize = 0; // Временный размер библиотеки, кот. будет использоваться при перезагрузке
                 int nextTargetLib = targetLib == 0 ? 1 : 0; // Переключить целевую библотеку
+                if (stats != null) stats.rebalances++;
 
                 // В цикле происходит перенос элементов из старых библиотек в новые библиотеки, а также запись
                 // "пробелов" в новую библиотеку.
@@ -46,23 +50,24 @@ public class LibrarySortStrategy implements SortStrategy<Integer> {
                         library[nextTargetLib][tempSize] = gaps[i];
                         tempSize++;
                         numbered[i] = false;
-                        countSteps++;
+                        if (stats != null) stats.steps++;
                     }
 
                     if (i <= libSize) {
                         library[nextTargetLib][tempSize] = library[targetLib][i];
                         tempSize++;
-                        countSteps++;
+                        if (stats != null) stats.steps++;
                     }
                 }
 
                 targetLib = nextTargetLib;
                 libSize = tempSize - 1;
+                if (stats != null) stats.elementsMoved += tempSize;
             } else {
                 numbered[insert] = true; // Помечается, что "пробел" теперь заполнен.
                 gaps[insert] = array[indexCurrElement]; // В этот "пробел" записывается текущий элемент массива.
                 indexCurrElement++;
-                countSteps++;
+                if (stats != null) stats.steps++;
             }
         }
 
@@ -72,16 +77,14 @@ public class LibrarySortStrategy implements SortStrategy<Integer> {
             if (numbered[i]) {
                 array[indexPosForOutput] = gaps[i];
                 indexPosForOutput++;
-                countSteps++;
+                if (stats != null) stats.steps++;
             }
 
             if (i < libSize) {
                 array[indexPosForOutput] = library[targetLib][i];
                 indexPosForOutput++;
-                countSteps++;
+                if (stats != null) stats.steps++;
             }
         }
-
-        System.out.printf("Количество перестановок: %d\n", countSteps);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * Сортировка массивов {@code long[]} без упаковки через {@link Arrays#sort(long[], int, int)}.
+ * Для примитивов устойчивость не нужна, а библиотечная сортировка быстрее
+ * собственной копии TimSort.
+ */
+public class LongArraysSortStrategy implements LongSortStrategy {
+
+    @Override
+    public void sort(long[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        Arrays.sort(array, fromIndex, toIndex);
+    }
+}
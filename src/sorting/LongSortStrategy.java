@@ -0,0 +1,9 @@
+package sorting;
+
+public interface LongSortStrategy {
+    void sort(long[] array, int fromIndex, int toIndex);
+
+    default void sort(long[] array) {
+        sort(array, 0, array.length);
+    }
+}
@@ -0,0 +1,47 @@
+package sorting;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Параллельное выполнение действия для сегментов 0, 1, ..., segments - 1 в ForkJoinPool.
+ */
+final class ParallelSegments {
+
+    private ParallelSegments() {
+    }
+
+    static void forEach(ForkJoinPool pool, int segments, IntConsumer action) {
+        if (segments > 0) {
+            pool.invoke(new SegmentTask(action, 0, segments));
+        }
+    }
+
+    /**
+     * Выполняет action для сегментов [lo, hi), деля диапазон пополам.
+     */
+    private static final class SegmentTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer action;
+        private final int lo;
+        private final int hi;
+
+        SegmentTask(IntConsumer action, int lo, int hi) {
+            this.action = action;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                action.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SegmentTask(action, lo, mid), new SegmentTask(action, mid, hi));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельный вариант TimSort, по устройству похожий на Arrays.parallelSort.
+ * Массив делится на четыре части, части сортируются в пуле ForkJoinPool,
+ * после чего пары частей сливаются в рабочий массив, а половины - обратно
+ * в исходный. Части размером не больше granularity сортируются последовательно
+ * с помощью {@link IntTimSortStrategy}; слияния больше granularity делятся пополам
+ * поиском разделителя и тоже выполняются параллельно.<br>
+ * Массивы Integer[] не распаковываются: новые объекты Integer не создаются,
+ * элементы переставляются устойчиво. Небольшие массивы сортируются {@link TimSortStrategy}
+ * на месте. Большие сортируются по ключам {@code long}: значение в старших 32 битах,
+ * исходная позиция в младших; ключи сортируются в пуле, после чего объекты
+ * расставляются по позициям из ключей. Дополнительная память - n ключей long и копия
+ * n ссылок.
+ */
+public class ParallelTimSortStrategy implements SortStrategy<Integer>, IntSortStrategy {
+
+    /**
+     * Размер части по умолчанию, меньше которой массив не делится на подзадачи.
+     */
+    public static final int DEFAULT_GRANULARITY = 1 << 13;
+
+    /**
+     * Во сколько раз частей больше, чем потоков пула, при построении ключей и расстановке объектов.
+     */
+    private static final int PARTS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int granularity;
+
+    public ParallelTimSortStrategy() {
+        this(ForkJoinPool.commonPool(), DEFAULT_GRANULARITY);
+    }
+
+    /**
+     * @param pool        пул, в котором выполняются подзадачи; позволяет ограничить число ядер
+     * @param granularity размер части, которая сортируется и сливается последовательно
+     */
+    public ParallelTimSortStrategy(ForkJoinPool pool, int granularity) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Пул потоков не задан");
+        }
+        if (granularity < 1) {
+            throw new IllegalArgumentException("Размер части должен быть положительным: " + granularity);
+        }
+        this.pool = pool;
+        this.granularity = granularity;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getGranularity() {
+        return granularity;
+    }
+
+    @Override
+    public void sort(Integer[] array) {
+        int n = array.length;
+        if (n <= granularity || pool.getParallelism() == 1) {
+            Integer[] work = new Integer[n >>> 1];
+            TimSortStrategy.sort(array, 0, n, work, 0, work.length);
+            return;
+        }
+
+        Integer[] objects = array.clone();
+        long[] keys = new long[n];
+        int parts = Math.min(pool.getParallelism() * PARTS_PER_THREAD, (n + granularity - 1) / granularity);
+        ParallelSegments.forEach(pool, parts, p -> {
+            for (int i = partStart(p, parts, n), end = partStart(p + 1, parts, n); i < end; i++) {
+                keys[i] = (long) objects[i] << 32 | i;
+            }
+        });
+        // Задачи Arrays.parallelSort, запущенной из потока пула, выполняются в этом же пуле
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(keys)));
+        ParallelSegments.forEach(pool, parts, p -> {
+            for (int i = partStart(p, parts, n), end = partStart(p + 1, parts, n); i < end; i++) {
+                array[i] = objects[(int) keys[i]];
+            }
+        });
+    }
+
+    private static int partStart(int part, int parts, int n) {
+        return (int) ((long) part * n / parts);
+    }
+
+    @Override
+    public void sort(int[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n <= granularity || pool.getParallelism() == 1) {
+            int[] work = new int[n >>> 1];
+            IntTimSortStrategy.sort(array, fromIndex, toIndex, work, 0, work.length);
+            return;
+        }
+        pool.invoke(new IntSorter(array, new int[n], fromIndex, 0, n, granularity));
+    }
+
+    /**
+     * Сортирует a[base, base + size), используя w[wBase, wBase + size) как рабочее пространство.
+     */
+    private static final class IntSorter extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] w;
+        private final int base;
+        private final int wBase;
+        private final int size;
+        private final int gran;
+
+        IntSorter(int[] a, int[] w, int base, int wBase, int size, int gran) {
+            this.a = a;
+            this.w = w;
+            this.base = base;
+            this.wBase = wBase;
+            this.size = size;
+            this.gran = gran;
+        }
+
+        @Override
+        protected void compute() {
+            if (size <= gran) {
+                IntTimSortStrategy.sort(a, base, base + size, w, wBase, size);
+                return;
+            }
+            int h = size >>> 1;
+            int q = h >>> 1;
+            int u = h + q; // Четыре части: [0, q), [q, h), [h, u), [u, size)
+            invokeAll(new IntSorter(a, w, base, wBase, q, gran),
+                    new IntSorter(a, w, base + q, wBase + q, h - q, gran),
+                    new IntSorter(a, w, base + h, wBase + h, u - h, gran),
+                    new IntSorter(a, w, base + u, wBase + u, size - u, gran));
+            invokeAll(new IntMerger(a, w, base, q, base + q, h - q, wBase, gran),
+                    new IntMerger(a, w, base + h, u - h, base + u, size - u, wBase + h, gran));
+            new IntMerger(w, a, wBase, h, wBase + h, size - h, base, gran).invoke();
+        }
+    }
+
+    /**
+     * Стабильно сливает src[lBase, lBase + lSize) и src[rBase, rBase + rSize) в dst, начиная с dBase.
+     */
+    private static final class IntMerger extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int[] dst;
+        private final int lBase;
+        private final int lSize;
+        private final int rBase;
+        private final int rSize;
+        private final int dBase;
+        private final int gran;
+
+        IntMerger(int[] src, int[] dst, int lBase, int lSize, int rBase, int rSize, int dBase, int gran) {
+            this.src = src;
+            this.dst = dst;
+            this.lBase = lBase;
+            this.lSize = lSize;
+            this.rBase = rBase;
+            this.rSize = rSize;
+            this.dBase = dBase;
+            this.gran = gran;
+        }
+
+        @Override
+        protected void compute() {
+            int[] src = this.src;
+            if (lSize + rSize <= gran || lSize + rSize < 3 || lSize == 0 || rSize == 0) {
+                mergeSequential();
+                return;
+            }
+
+            // Делим большую из частей пополам и ищем разделитель в меньшей
+            int lh, rh;
+            if (lSize >= rSize) {
+                lh = lSize >>> 1;
+                int split = src[lBase + lh];
+                int lo = 0, hi = rSize;
+                while (lo < hi) { // Первый элемент правой части, не меньший разделителя
+                    int mid = (lo + hi) >>> 1;
+                    if (src[rBase + mid] < split)
+                        lo = mid + 1;
+                    else
+                        hi = mid;
+                }
+                rh = lo;
+            } else {
+                rh = rSize >>> 1;
+                int split = src[rBase + rh];
+                int lo = 0, hi = lSize;
+                while (lo < hi) { // Первый элемент левой части, больший разделителя
+                    int mid = (lo + hi) >>> 1;
+                    if (split < src[lBase + mid])
+                        hi = mid;
+                    else
+                        lo = mid + 1;
+                }
+                lh = lo;
+            }
+            invokeAll(new IntMerger(src, dst, lBase, lh, rBase, rh, dBase, gran),
+                    new IntMerger(src, dst, lBase + lh, lSize - lh, rBase + rh, rSize - rh,
+                            dBase + lh + rh, gran));
+        }
+
+        private void mergeSequential() {
+            int[] src = this.src;
+            int[] dst = this.dst;
+            int l = lBase, lEnd = lBase + lSize;
+            int r = rBase, rEnd = rBase + rSize;
+            int d = dBase;
+            while (l < lEnd && r < rEnd) {
+                int lv = src[l], rv = src[r];
+                if (rv < lv) {
+                    dst[d++] = rv;
+                    r++;
+                } else {
+                    dst[d++] = lv;
+                    l++;
+                }
+            }
+            if (l < lEnd)
+                System.arraycopy(src, l, dst, d, lEnd - l);
+            else if (r < rEnd)
+                System.arraycopy(src, r, dst, d, rEnd - r);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package sorting;
+
+/**
+ * LSD поразрядная сортировка 32-битных целых чисел по байтам (четыре прохода).
+ * Гистограммы всех разрядов строятся за один проход по данным, а проходы
+ * по разрядам, в которых все элементы совпадают, пропускаются. Знаковый бит
+ * старшего разряда инвертируется, чтобы отрицательные числа шли перед положительными.
+ */
+public class RadixSortStrategy implements SortStrategy<Integer>, IntSortStrategy {
+
+    /**
+     * Размер диапазона, меньше которого выгоднее сортировка вставками в {@link IntTimSortStrategy}.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int MASK = RADIX - 1;
+    private static final int PASSES = Integer.SIZE / RADIX_BITS;
+
+    /**
+     * Сортирует через int[]: значения распаковываются, сортируются и записываются обратно
+     * через {@link IntArrays#copyInto}. Кроме n чисел int выделяется новый объект Integer
+     * на каждое значение вне кэша Integer (от -128 до 127), а прежние объекты не сохраняются.
+     * Без упаковки сортирует {@link #sort(int[], int, int)}.
+     */
+    @Override
+    public void sort(Integer[] array) {
+        int[] values = IntArrays.toIntArray(array);
+        sort(values, 0, values.length);
+        IntArrays.copyInto(values, array);
+    }
+
+    @Override
+    public void sort(int[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n < INSERTION_SORT_THRESHOLD) {
+            IntTimSortStrategy.sort(array, fromIndex, toIndex, null, 0, 0);
+            return;
+        }
+
+        // Гистограммы всех разрядов за один проход
+        int[][] counts = new int[PASSES][RADIX + 1];
+        for (int i = fromIndex; i < toIndex; i++) {
+            int key = array[i] ^ Integer.MIN_VALUE;
+            for (int p = 0; p < PASSES; p++) {
+                counts[p][((key >>> (p * RADIX_BITS)) & MASK) + 1]++;
+            }
+        }
+
+        int[] src = array;
+        int srcBase = fromIndex;
+        int[] dst = new int[n];
+        int dstBase = 0;
+        for (int p = 0; p < PASSES; p++) {
+            int[] count = counts[p];
+
+            // Все элементы имеют одинаковый разряд - проход ничего не меняет
+            boolean trivial = false;
+            for (int d = 1; d <= RADIX; d++) {
+                if (count[d] == n) {
+                    trivial = true;
+                    break;
+                }
+                if (count[d] != 0) {
+                    break;
+                }
+            }
+            if (trivial) {
+                continue;
+            }
+
+            // Префиксные суммы: count[d] - начальная позиция разряда d
+            for (int d = 0; d < RADIX; d++) {
+                count[d + 1] += count[d];
+            }
+            int shift = p * RADIX_BITS;
+            for (int i = srcBase, end = srcBase + n; i < end; i++) {
+                int value = src[i];
+                int digit = ((value ^ Integer.MIN_VALUE) >>> shift) & MASK;
+                dst[dstBase + count[digit]++] = value;
+            }
+
+            int[] t = src;
+            src = dst;
+            dst = t;
+            int tb = srcBase;
+            srcBase = dstBase;
+            dstBase = tb;
+        }
+
+        if (src != array) {
+            System.arraycopy(src, srcBase, array, fromIndex, n);
+        }
+    }
+}
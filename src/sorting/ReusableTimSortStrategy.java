@@ -0,0 +1,115 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * TimSort, который сохраняет рабочие буферы между вызовами.
+ * Буфер слияния (половина длины сортируемого диапазона) и стек прогонов выделяются
+ * один раз и растут по мере необходимости, но не больше maxRetainedLength элементов:
+ * если вызову нужен буфер больше предела, он выделяется только на время этого вызова.
+ * Метод {@link #trim()} освобождает сохраненные буферы.<br>
+ * Экземпляр не потокобезопасен; для использования из нескольких потоков есть
+ * {@link #forCurrentThread()}.
+ */
+public class ReusableTimSortStrategy implements SortStrategy<Integer>, IntSortStrategy {
+
+    /**
+     * Предел сохраняемого буфера по умолчанию (в элементах).
+     */
+    public static final int DEFAULT_MAX_RETAINED_LENGTH = 1 << 20;
+
+    private static final ThreadLocal<ReusableTimSortStrategy> PER_THREAD =
+            ThreadLocal.withInitial(ReusableTimSortStrategy::new);
+
+    private final int maxRetainedLength;
+
+    private Integer[] objectWork;
+    private int[] intWork;
+    private final int[] runBase = new int[TimSortStrategy.MAX_RUN_STACK_LENGTH];
+    private final int[] runLen = new int[TimSortStrategy.MAX_RUN_STACK_LENGTH];
+
+    public ReusableTimSortStrategy() {
+        this(DEFAULT_MAX_RETAINED_LENGTH);
+    }
+
+    /**
+     * @param maxRetainedLength максимальная длина буфера слияния, который сохраняется между вызовами
+     */
+    public ReusableTimSortStrategy(int maxRetainedLength) {
+        if (maxRetainedLength < 0) {
+            throw new IllegalArgumentException("Предел буфера не может быть отрицательным: " + maxRetainedLength);
+        }
+        this.maxRetainedLength = maxRetainedLength;
+    }
+
+    /**
+     * Возвращает экземпляр, закрепленный за текущим потоком.
+     */
+    public static ReusableTimSortStrategy forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    @Override
+    public void sort(Integer[] array) {
+        sort(array, null);
+    }
+
+    @Override
+    public void sort(Integer[] array, SortStats stats) {
+        int need = array.length >>> 1;
+        Integer[] work = objectWork;
+        if (work == null || work.length < need) {
+            work = new Integer[grownLength(work == null ? 0 : work.length, need)];
+            if (work.length <= maxRetainedLength) {
+                objectWork = work;
+            }
+        }
+        TimSortStrategy.sort(array, 0, array.length, work, 0, work.length, runBase, runLen, stats);
+
+        // Не удерживаем ссылки на элементы отсортированного массива
+        if (work == objectWork) {
+            Arrays.fill(work, 0, need, null);
+        }
+    }
+
+    @Override
+    public void sort(int[] array, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        int need = (toIndex - fromIndex) >>> 1;
+        int[] work = intWork;
+        if (work == null || work.length < need) {
+            work = new int[grownLength(work == null ? 0 : work.length, need)];
+            if (work.length <= maxRetainedLength) {
+                intWork = work;
+            }
+        }
+        IntTimSortStrategy.sort(array, fromIndex, toIndex, work, 0, work.length, runBase, runLen);
+    }
+
+    /**
+     * Освобождает сохраненные буферы слияния.
+     */
+    public void trim() {
+        objectWork = null;
+        intWork = null;
+    }
+
+    public int getMaxRetainedLength() {
+        return maxRetainedLength;
+    }
+
+    /**
+     * Возвращает суммарную длину буферов, удерживаемых экземпляром.
+     */
+    public int getRetainedLength() {
+        return (objectWork == null ? 0 : objectWork.length) + (intWork == null ? 0 : intWork.length);
+    }
+
+    /**
+     * Новый размер буфера: удвоение текущего, но не больше предела и не меньше требуемого.
+     */
+    private int grownLength(int current, int need) {
+        int doubled = current > Integer.MAX_VALUE >>> 1 ? Integer.MAX_VALUE : current << 1;
+        return Math.max(need, Math.min(doubled, maxRetainedLength));
+    }
+}
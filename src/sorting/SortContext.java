@@ -1,18 +1,60 @@
 package sorting;
 
 public class SortContext{
-    private SortStrategy strategy;
+    private SortStrategy<Integer> strategy;
+    private SortStats stats;
+    private SortMetrics metrics;
 
-    public void setStrategy(SortStrategy strategy) {
+    public void setStrategy(SortStrategy<Integer> strategy) {
         this.strategy = strategy;
     }
 
-    public SortStrategy getStrategy() {
+    public SortStrategy<Integer> getStrategy() {
         return strategy;
     }
 
+    /**
+     * Включает автоматический выбор алгоритма по размеру, упорядоченности
+     * и диапазону входных данных.
+     */
+    public void useAdaptiveStrategy() {
+        this.strategy = new AdaptiveSortStrategy();
+    }
+
+    /**
+     * Задает объект статистики для следующих вызовов; null отключает подсчет шагов.
+     */
+    public void setStats(SortStats stats) {
+        this.stats = stats;
+    }
+
+    public SortStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Задает накопитель, в который добавляется статистика каждого вызова; null отключает накопление.
+     */
+    public void setMetrics(SortMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SortMetrics getMetrics() {
+        return metrics;
+    }
+
     public void executeStrategy(Integer[] array) {
-        strategy.sort(array);
+        if (metrics == null) {
+            strategy.sort(array, stats);
+            return;
+        }
+        // Статистика вызова собирается отдельно, чтобы в метрики не попали значения прошлых вызовов
+        SortStats callStats = new SortStats();
+        strategy.sort(array, callStats);
+        metrics.record(callStats, array.length);
+        if (stats != null) {
+            stats.add(callStats);
+        }
     }
 
 }
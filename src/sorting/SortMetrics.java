@@ -0,0 +1,173 @@
+package sorting;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сумма статистики {@link SortStats} по многим вызовам сортировки.
+ * Вызовы из разных потоков складываются без блокировок ({@link LongAdder}).
+ * Экземпляр можно зарегистрировать в платформенном MBeanServer методом {@link #register(String)}.
+ */
+public class SortMetrics implements SortMetricsMXBean {
+
+    /**
+     * Имя MBean по умолчанию.
+     */
+    public static final String DEFAULT_NAME = "sorting:type=SortMetrics";
+
+    private final LongAdder sorts = new LongAdder();
+    private final LongAdder sortedElements = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder[] runLengths = new LongAdder[SortStats.RUN_LENGTH_BUCKETS];
+    private final LongAdder merges = new LongAdder();
+    private final LongAdder elementsMoved = new LongAdder();
+    private final LongAdder gallopEntries = new LongAdder();
+    private final LongAdder gallopExits = new LongAdder();
+    private final LongAdder minGallopChanges = new LongAdder();
+    private final LongAdder rebalances = new LongAdder();
+    private volatile int lastMinGallop;
+
+    public SortMetrics() {
+        for (int i = 0; i < runLengths.length; i++) {
+            runLengths[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Добавляет статистику одного вызова сортировки массива из length элементов.
+     */
+    public void record(SortStats stats, int length) {
+        sorts.increment();
+        sortedElements.add(length);
+        steps.add(stats.steps);
+        comparisons.add(stats.comparisons);
+        runs.add(stats.runs);
+        for (int i = 0; i < runLengths.length; i++) {
+            if (stats.runLengths[i] != 0) {
+                runLengths[i].add(stats.runLengths[i]);
+            }
+        }
+        merges.add(stats.merges);
+        elementsMoved.add(stats.elementsMoved);
+        gallopEntries.add(stats.gallopEntries);
+        gallopExits.add(stats.gallopExits);
+        minGallopChanges.add(stats.minGallopChanges);
+        rebalances.add(stats.rebalances);
+        if (stats.minGallop != 0) {
+            lastMinGallop = stats.minGallop;
+        }
+    }
+
+    /**
+     * Регистрирует экземпляр в платформенном MBeanServer под именем name.
+     * Если под этим именем уже зарегистрирован другой объект, он заменяется.
+     */
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            try {
+                server.registerMBean(this, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Не удалось зарегистрировать MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getSorts() {
+        return sorts.sum();
+    }
+
+    @Override
+    public long getSortedElements() {
+        return sortedElements.sum();
+    }
+
+    @Override
+    public long getSteps() {
+        return steps.sum();
+    }
+
+    @Override
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    @Override
+    public long[] getRunLengthHistogram() {
+        long[] histogram = new long[runLengths.length];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = runLengths[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getMerges() {
+        return merges.sum();
+    }
+
+    @Override
+    public long getElementsMoved() {
+        return elementsMoved.sum();
+    }
+
+    @Override
+    public long getGallopEntries() {
+        return gallopEntries.sum();
+    }
+
+    @Override
+    public long getGallopExits() {
+        return gallopExits.sum();
+    }
+
+    @Override
+    public long getMinGallopChanges() {
+        return minGallopChanges.sum();
+    }
+
+    @Override
+    public int getLastMinGallop() {
+        return lastMinGallop;
+    }
+
+    @Override
+    public long getRebalances() {
+        return rebalances.sum();
+    }
+
+    @Override
+    public void reset() {
+        sorts.reset();
+        sortedElements.reset();
+        steps.reset();
+        comparisons.reset();
+        runs.reset();
+        for (LongAdder bucket : runLengths) {
+            bucket.reset();
+        }
+        merges.reset();
+        elementsMoved.reset();
+        gallopEntries.reset();
+        gallopExits.reset();
+        minGallopChanges.reset();
+        rebalances.reset();
+        lastMinGallop = 0;
+    }
+}
@@ -0,0 +1,42 @@
+package sorting;
+
+/**
+ * Накопленная статистика сортировок, доступная через JMX (например, в jconsole).
+ * Значения описаны в {@link SortStats}.
+ */
+public interface SortMetricsMXBean {
+
+    long getSorts();
+
+    long getSortedElements();
+
+    long getSteps();
+
+    long getComparisons();
+
+    long getRuns();
+
+    /**
+     * Распределение длин прогонов: элемент i - количество прогонов с длиной из [2^i, 2^(i+1)).
+     */
+    long[] getRunLengthHistogram();
+
+    long getMerges();
+
+    long getElementsMoved();
+
+    long getGallopEntries();
+
+    long getGallopExits();
+
+    long getMinGallopChanges();
+
+    /**
+     * Порог галопирования после последней сортировки со слияниями.
+     */
+    int getLastMinGallop();
+
+    long getRebalances();
+
+    void reset();
+}
@@ -0,0 +1,163 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * Статистика одного вызова сортировки.
+ * Объект передается в стратегию через {@link SortContext} и заполняется только
+ * во время этого вызова, поэтому параллельные сортировки не мешают друг другу.
+ * Если статистика не нужна, вместо объекта передается null, и подсчет пропускается.<br>
+ * Шаги заполняют все стратегии с поддержкой статистики; остальные счетчики -
+ * {@link TimSortStrategy} (прогоны, слияния, галопирование) и
+ * {@link LibrarySortStrategy} (перестройки библиотеки).
+ * Накопить статистику многих вызовов и опубликовать ее через JMX можно в {@link SortMetrics}.
+ */
+public final class SortStats {
+
+    /**
+     * Число корзин распределения длин прогонов: корзина i - длины из [2^i, 2^(i+1)).
+     */
+    public static final int RUN_LENGTH_BUCKETS = Integer.SIZE;
+
+    long steps;
+    long comparisons;
+    long runs;
+    final long[] runLengths = new long[RUN_LENGTH_BUCKETS];
+    long merges;
+    long elementsMoved;
+    long gallopEntries;
+    long gallopExits;
+    long minGallopChanges;
+    int minGallop;
+    long rebalances;
+
+    /**
+     * Количество шагов сортировки (сравнений и перестановок элементов).
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Количество сравнений элементов. Для TimSort - оценка снизу (сравнение, которое
+     * завершает цикл галопирования, не учитывается), для Library sort - оценка сверху
+     * по длине бинарного поиска.
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Количество естественных прогонов, найденных TimSort (до расширения до minRun).
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Распределение длин естественных прогонов: элемент i - количество прогонов
+     * с длиной из [2^i, 2^(i+1)). Возвращается копия.
+     */
+    public long[] getRunLengthHistogram() {
+        return runLengths.clone();
+    }
+
+    /**
+     * Количество слияний пар прогонов.
+     */
+    public long getMerges() {
+        return merges;
+    }
+
+    /**
+     * Количество перемещений элементов при слияниях TimSort (включая копирование
+     * во временный массив) и при перестройках библиотеки в Library sort.
+     */
+    public long getElementsMoved() {
+        return elementsMoved;
+    }
+
+    /**
+     * Сколько раз слияние переходило в режим галопирования.
+     */
+    public long getGallopEntries() {
+        return gallopEntries;
+    }
+
+    /**
+     * Сколько раз слияние выходило из режима галопирования, потому что он перестал окупаться
+     * (при этом порог minGallop увеличивается).
+     */
+    public long getGallopExits() {
+        return gallopExits;
+    }
+
+    /**
+     * После скольких слияний изменился порог галопирования minGallop.
+     */
+    public long getMinGallopChanges() {
+        return minGallopChanges;
+    }
+
+    /**
+     * Порог галопирования после последнего слияния (0, если слияний не было).
+     */
+    public int getMinGallop() {
+        return minGallop;
+    }
+
+    /**
+     * Количество перестроек библиотеки в Library sort.
+     */
+    public long getRebalances() {
+        return rebalances;
+    }
+
+    /**
+     * Учитывает одно сравнение элементов (оно же шаг сортировки).
+     */
+    void compared() {
+        steps++;
+        comparisons++;
+    }
+
+    void recordRun(int length) {
+        runs++;
+        runLengths[31 - Integer.numberOfLeadingZeros(length)]++;
+    }
+
+    /**
+     * Прибавляет к этой статистике статистику other.
+     */
+    void add(SortStats other) {
+        steps += other.steps;
+        comparisons += other.comparisons;
+        runs += other.runs;
+        for (int i = 0; i < runLengths.length; i++) {
+            runLengths[i] += other.runLengths[i];
+        }
+        merges += other.merges;
+        elementsMoved += other.elementsMoved;
+        gallopEntries += other.gallopEntries;
+        gallopExits += other.gallopExits;
+        minGallopChanges += other.minGallopChanges;
+        if (other.minGallop != 0) {
+            minGallop = other.minGallop;
+        }
+        rebalances += other.rebalances;
+    }
+
+    public void reset() {
+        steps = 0;
+        comparisons = 0;
+        runs = 0;
+        Arrays.fill(runLengths, 0);
+        merges = 0;
+        elementsMoved = 0;
+        gallopEntries = 0;
+        gallopExits = 0;
+        minGallopChanges = 0;
+        minGallop = 0;
+        rebalances = 0;
+    }
+}
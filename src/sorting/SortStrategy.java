@@ -1,5 +1,15 @@
 package sorting;
 
-public interface SortStrategy <T extends Number> {
+public interface SortStrategy <T> {
     void sort(T[] array);
-}
\ No newline at end of file
+
+    /**
+     * Сортирует массив, учитывая шаги сортировки в stats.
+     * Стратегии, которые не ведут статистику, просто сортируют массив.
+     *
+     * @param stats статистика вызова, может быть null
+     */
+    default void sort(T[] array, SortStats stats) {
+        sort(array);
+    }
+}
@@ -0,0 +1,530 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Отсортированный набор чисел (с повторами), который пополняется постепенно.
+ * Построен на той же библиотеке с пробелами, что и {@link IntLibrarySortStrategy}, но
+ * библиотека не выбрасывается после сортировки:
+ * <ul>
+ *     <li>Число вставляется в пробел рядом со своей позицией, найденной бинарным поиском;
+ *     пробелы хранят значение ближайшего элемента слева, поэтому библиотека не убывает.</li>
+ *     <li>Библиотека перестраивается, только когда пробелы кончаются. Если до ближайшего
+ *     пробела дальше {@link #MAX_SHIFT} позиций, равномерно раздвигается наименьшее
+ *     выровненное окно вокруг позиции, занятое не больше чем наполовину (как в packed
+ *     memory array); вся библиотека перестраивается, когда элементы заняли больше
+ *     половины используемой части.</li>
+ *     <li>Число не меньше всех остальных дописывается в конец без сдвигов, поэтому
+ *     возрастающий поток вставок обходится в O(1) на число.</li>
+ *     <li>Количество элементов в блоках по 64 позиции хранится в дереве Фенвика, поэтому
+ *     {@link #rank} и {@link #get} работают за O(log n).</li>
+ * </ul>
+ * Пакет {@link #addAll} вставляется в случайном порядке, как в {@link IntLibrarySortStrategy};
+ * пакет не меньше текущего набора сортируется и сливается с ним за один проход.<br>
+ * Класс не потокобезопасен.
+ */
+public class SortedIntLibrary implements Iterable<Integer> {
+
+    /**
+     * Во сколько раз используемая часть библиотеки больше числа элементов после перестройки.
+     */
+    private static final int SPREAD = 4;
+
+    /**
+     * Сдвиг, после которого вставка раздвигает окно вокруг позиции вместо сдвига элементов.
+     */
+    static final int MAX_SHIFT = 64;
+
+    private static final int BLOCK_SHIFT = 6;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] library; // Элементы; пробел хранит значение ближайшего элемента слева
+    private boolean[] numbered; // Занята ли позиция элементом (true) или это пробел (false)
+    private int[] blockCounts; // Дерево Фенвика: количество элементов в блоках по 64 позиции
+    private int libSize; // Размер используемой части библиотеки
+    private int size;
+    private int modCount;
+
+    public SortedIntLibrary() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize ожидаемое количество чисел, под которое память выделяется сразу
+     */
+    public SortedIntLibrary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Ожидаемый размер не может быть отрицательным: " + expectedSize);
+        }
+        allocate(capacityFor(Math.max(1, expectedSize)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(int value) {
+        ensureGaps(size + 1);
+        int crowded;
+        while ((crowded = insert(value)) >= 0) {
+            rebalanceAround(crowded);
+        }
+        size++;
+        modCount++;
+    }
+
+    public void addAll(int[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * Добавляет values[fromIndex, toIndex); массив не изменяется.
+     */
+    public void addAll(int[] values, int fromIndex, int toIndex) {
+        IntTimSortStrategy.rangeCheck(values.length, fromIndex, toIndex);
+        int count = toIndex - fromIndex;
+        if (count == 0) {
+            return;
+        }
+        int[] batch = Arrays.copyOfRange(values, fromIndex, toIndex);
+        if (count >= size) {
+            new IntTimSortStrategy().sort(batch);
+            rebuild(merge(toArray(), batch));
+            return;
+        }
+
+        // Случайный порядок вставки: сдвиги до ближайшего пробела в среднем короткие
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = batch[i];
+            batch[i] = batch[j];
+            batch[j] = t;
+        }
+        ensureGaps(size + count);
+        for (int value : batch) {
+            int crowded;
+            while ((crowded = insert(value)) >= 0) {
+                rebalanceAround(crowded);
+            }
+            size++;
+        }
+        modCount++;
+    }
+
+    /**
+     * Число с рангом rank (0 - наименьшее).
+     *
+     * @throws IndexOutOfBoundsException если ранг вне [0, size)
+     */
+    public int get(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Ранг " + rank + " вне набора из " + size + " чисел");
+        }
+        // Спуск по дереву Фенвика: последний блок, перед которым не больше rank элементов
+        int block = 0;
+        int remaining = rank;
+        for (int step = Integer.highestOneBit(blockCounts.length - 1); step > 0; step >>>= 1) {
+            int next = block + step;
+            if (next < blockCounts.length && blockCounts[next] <= remaining) {
+                block = next;
+                remaining -= blockCounts[next];
+            }
+        }
+        for (int i = block << BLOCK_SHIFT; ; i++) {
+            if (numbered[i] && remaining-- == 0) {
+                return library[i];
+            }
+        }
+    }
+
+    /**
+     * Количество чисел, меньших value.
+     */
+    public int rank(int value) {
+        if (size == 0) {
+            return 0;
+        }
+        int pos = lowerBound(value);
+        int block = pos >>> BLOCK_SHIFT;
+        int rank = prefixCount(block);
+        for (int i = block << BLOCK_SHIFT; i < pos; i++) {
+            if (numbered[i]) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    public boolean contains(int value) {
+        if (size == 0) {
+            return false;
+        }
+        // Первая позиция со значением не меньше value занята элементом: пробел повторял бы
+        // значение элемента левее, а левее все значения меньше
+        int pos = lowerBound(value);
+        return pos < libSize && library[pos] == value;
+    }
+
+    /**
+     * Итератор по числам в порядке возрастания. Изменение набора во время обхода
+     * приводит к {@link ConcurrentModificationException}.
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private final int expectedModCount = modCount;
+            private int position = nextNumbered(0);
+
+            @Override
+            public boolean hasNext() {
+                return position < libSize;
+            }
+
+            @Override
+            public int nextInt() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (position >= libSize) {
+                    throw new NoSuchElementException();
+                }
+                int value = library[position];
+                position = nextNumbered(position + 1);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Числа по возрастанию.
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        int out = 0;
+        for (int i = 0; i < libSize; i++) {
+            if (numbered[i]) {
+                values[out++] = library[i];
+            }
+        }
+        return values;
+    }
+
+    public void clear() {
+        Arrays.fill(numbered, 0, libSize, false);
+        Arrays.fill(blockCounts, 0);
+        libSize = 0;
+        size = 0;
+        modCount++;
+    }
+
+    private int nextNumbered(int from) {
+        while (from < libSize && !numbered[from]) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Вставляет значение, если пробел найден не дальше {@link #MAX_SHIFT} позиций.
+     *
+     * @return -1, если значение вставлено, иначе позиция, вокруг которой нужно раздвинуть элементы
+     */
+    private int insert(int value) {
+        if (size == 0) {
+            library[0] = value;
+            markNumbered(0);
+            libSize = Math.max(libSize, 1);
+            fillGaps(library, numbered, libSize);
+            return -1;
+        }
+
+        // Первая позиция со значением больше вставляемого
+        int lo = 0, hi = libSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (value < library[mid])
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        int pos = lo;
+
+        // Слева от позиции пробел - вставляем в него
+        if (pos > 0 && !numbered[pos - 1]) {
+            library[pos - 1] = value;
+            markNumbered(pos - 1);
+            return -1;
+        }
+
+        // Число не меньше всех остальных - дописываем в конец
+        if (pos == libSize && libSize < library.length) {
+            library[libSize] = value;
+            markNumbered(libSize);
+            libSize++;
+            return -1;
+        }
+
+        // Иначе сдвигаем элементы до ближайшего пробела справа или слева
+        for (int d = 0; d < MAX_SHIFT; d++) {
+            int right = pos + d;
+            if (right < libSize && !numbered[right]) {
+                System.arraycopy(library, pos, library, pos + 1, right - pos);
+                library[pos] = value;
+                markNumbered(right);
+                return -1;
+            }
+            int left = pos - 2 - d;
+            if (left >= 0 && !numbered[left]) {
+                System.arraycopy(library, left + 1, library, left, pos - 1 - left);
+                library[pos - 1] = value;
+                markNumbered(left);
+                return -1;
+            }
+        }
+        return pos;
+    }
+
+    private int lowerBound(int value) {
+        int lo = 0, hi = libSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (library[mid] < value)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Раздвигает элементы в наименьшем окне вокруг position, плотность которого после
+     * вставки не превысит порог окна. Порог убывает от 3/4 для самого маленького окна до 1/2
+     * для всей библиотеки: после раздвижения большого окна в его частях остается запас до их
+     * порогов, поэтому каждое окно раздвигается редко, и вставка в одно и то же место
+     * обходится в среднем в O(log^2 n) перемещений.<br>
+     * Окна выровнены по своему размеру, поэтому количество элементов в окне берется из
+     * дерева Фенвика. Если подходящего окна нет, перестраивается вся библиотека.
+     */
+    private void rebalanceAround(int position) {
+        int anchor = Math.min(position, libSize - 1);
+        int minWindow = MAX_SHIFT << 2;
+        int levels = 0;
+        for (long window = minWindow; window < libSize; window <<= 1) {
+            levels++;
+        }
+        int level = 0;
+        for (long window = minWindow; window < libSize; window <<= 1, level++) {
+            int start = (int) (anchor / window * window);
+            int end = (int) Math.min(start + window, libSize);
+            int count = prefixCount(blocksFor(end)) - prefixCount(start >>> BLOCK_SHIFT);
+            double threshold = 0.75 - 0.25 * level / levels;
+            if (count + 1 <= threshold * (end - start)) {
+                spreadWindow(start, end, count);
+                return;
+            }
+        }
+        rebalance(size + 1);
+    }
+
+    /**
+     * Равномерно распределяет count элементов окна library[start, end).
+     * Наибольший элемент окна не меняется, поэтому пробелы правее окна остаются верными.
+     */
+    private void spreadWindow(int start, int end, int count) {
+        int firstBlock = start >>> BLOCK_SHIFT;
+        int[] deltas = new int[blocksFor(end) - firstBlock];
+
+        int j = start;
+        for (int i = start; i < end; i++) {
+            if (numbered[i]) {
+                library[j++] = library[i];
+                numbered[i] = false;
+                deltas[(i >>> BLOCK_SHIFT) - firstBlock]--;
+            }
+        }
+        int length = end - start;
+        for (int k = count - 1; k >= 0; k--) {
+            int pos = start + (int) ((long) k * length / count);
+            library[pos] = library[start + k];
+            numbered[pos] = true;
+            deltas[(pos >>> BLOCK_SHIFT) - firstBlock]++;
+        }
+
+        int last = library[start];
+        for (int i = start; i < end; i++) {
+            if (numbered[i])
+                last = library[i];
+            else
+                library[i] = last;
+        }
+        for (int b = 0; b < deltas.length; b++) {
+            if (deltas[b] != 0) {
+                updateCount(firstBlock + b, deltas[b]);
+            }
+        }
+    }
+
+    /**
+     * Перестраивает библиотеку заранее, если после вставки элементы займут больше половины
+     * используемой части.
+     */
+    private void ensureGaps(int count) {
+        if (count > MAX_CAPACITY / SPREAD) {
+            throw new IllegalStateException("Набор не может содержать больше " + MAX_CAPACITY / SPREAD + " чисел");
+        }
+        if ((long) count * 2 > libSize) {
+            rebalance(count);
+        }
+    }
+
+    /**
+     * Равномерно распределяет текущие элементы по библиотеке размера, рассчитанного на count элементов.
+     */
+    private void rebalance(int count) {
+        int newSize = regionSize(count);
+        if (newSize > library.length) {
+            int capacity = capacityFor(count);
+            library = Arrays.copyOf(library, capacity);
+            numbered = Arrays.copyOf(numbered, capacity);
+            blockCounts = new int[blocksFor(capacity) + 1];
+        }
+        if (size == 0) {
+            libSize = newSize;
+            return;
+        }
+
+        // Сжатие элементов к началу
+        int j = 0;
+        for (int i = 0; i < libSize; i++) {
+            if (numbered[i]) {
+                library[j++] = library[i];
+                numbered[i] = false;
+            }
+        }
+        spread(newSize);
+    }
+
+    /**
+     * Заменяет содержимое отсортированными числами sorted.
+     */
+    private void rebuild(int[] sorted) {
+        int count = sorted.length;
+        if (count > MAX_CAPACITY / SPREAD) {
+            throw new IllegalStateException("Набор не может содержать больше " + MAX_CAPACITY / SPREAD + " чисел");
+        }
+        Arrays.fill(numbered, 0, libSize, false);
+        int newSize = regionSize(count);
+        if (newSize > library.length) {
+            allocate(capacityFor(count));
+        }
+        System.arraycopy(sorted, 0, library, 0, count);
+        size = count;
+        modCount++;
+        spread(newSize);
+    }
+
+    /**
+     * Раздвигает size элементов из начала библиотеки по library[0, newSize).
+     * Раздвижение идет справа налево: позиция элемента k не меньше k, поэтому
+     * еще не перемещенные элементы не затираются.
+     */
+    private void spread(int newSize) {
+        for (int k = size - 1; k >= 0; k--) {
+            int pos = (int) ((long) k * newSize / size);
+            library[pos] = library[k];
+            numbered[pos] = true;
+        }
+        libSize = newSize;
+        fillGaps(library, numbered, libSize);
+
+        // Дерево Фенвика строится за линейное время: сначала счетчики блоков, затем передача родителям
+        Arrays.fill(blockCounts, 0);
+        for (int i = 0; i < libSize; i++) {
+            if (numbered[i]) {
+                blockCounts[(i >>> BLOCK_SHIFT) + 1]++;
+            }
+        }
+        for (int i = 1; i < blockCounts.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < blockCounts.length) {
+                blockCounts[parent] += blockCounts[i];
+            }
+        }
+    }
+
+    private void markNumbered(int position) {
+        numbered[position] = true;
+        updateCount(position >>> BLOCK_SHIFT, 1);
+    }
+
+    private void updateCount(int block, int delta) {
+        for (int i = block + 1; i < blockCounts.length; i += i & -i) {
+            blockCounts[i] += delta;
+        }
+    }
+
+    /**
+     * Количество элементов в блоках [0, block).
+     */
+    private int prefixCount(int block) {
+        int count = 0;
+        for (int i = block; i > 0; i -= i & -i) {
+            count += blockCounts[i];
+        }
+        return count;
+    }
+
+    private void allocate(int capacity) {
+        library = new int[capacity];
+        numbered = new boolean[capacity];
+        blockCounts = new int[blocksFor(capacity) + 1];
+    }
+
+    private static int regionSize(int count) {
+        return Math.max(MIN_CAPACITY, count * SPREAD);
+    }
+
+    /**
+     * Емкость с запасом на дописывание в конец: до следующей перестройки используемая
+     * часть может вырасти в полтора раза.
+     */
+    private static int capacityFor(int count) {
+        long capacity = (long) regionSize(count) * 3 / 2;
+        return capacity > MAX_CAPACITY ? MAX_CAPACITY : (int) capacity;
+    }
+
+    private static int blocksFor(int capacity) {
+        return (capacity + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = b[j] < a[i] ? b[j++] : a[i++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    private static void fillGaps(int[] library, boolean[] numbered, int libSize) {
+        int last = library[0];
+        for (int i = 0; i < libSize; i++) {
+            if (numbered[i])
+                last = library[i];
+            else
+                library[i] = last;
+        }
+    }
+}
@@ -48,22 +48,29 @@ public class TimSortStrategy implements SortStrategy<Integer> {
     private final int[] runBase;
     private final int[] runLen;
 
-    private static Integer countSteps = 0;
+    /**
+     * Длина стека прогонов, достаточная для массива любой длины.
+     */
+    static final int MAX_RUN_STACK_LENGTH = 49;
 
-    public static int getCountSteps() {
-        return countSteps;
-    }
+    /**
+     * Статистика текущего вызова; null, если подсчет шагов не нужен.
+     */
+    private final SortStats stats;
 
     // Конструктор по умолчанию
     public TimSortStrategy(){
         a = new Integer[1];
+        stats = null;
         runBase = new int[1];
         runLen = new int[1];
 
     }
 
-    private TimSortStrategy(Integer[] a, Integer[] work, int workBase, int workLen) {
+    private TimSortStrategy(Integer[] a, Integer[] work, int workBase, int workLen,
+                            int[] runBase, int[] runLen, SortStats stats) {
         this.a = a;
+        this.stats = stats;
 
         // Выделение временного хранилища (которое может быть увеличено при необходимости)
         int len = a.length;
@@ -73,7 +80,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
             tmp = new Integer[tlen];
             tmpBase = 0;
             tmpLen = tlen;
-            countSteps++;
+            if (stats != null) stats.steps++;
         } else {
             tmp = work;
             tmpBase = workBase;
@@ -95,17 +102,24 @@ public class TimSortStrategy implements SortStrategy<Integer> {
          */
         int stackLen = (len < 120 ? 5 :
                 len < 1542 ? 10 :
-                        len < 119151 ? 24 : 49);
-        runBase = new int[stackLen];
-        runLen = new int[stackLen];
+                        len < 119151 ? 24 : MAX_RUN_STACK_LENGTH);
+        if (runBase == null || runBase.length < stackLen || runLen.length < stackLen) {
+            runBase = new int[stackLen];
+            runLen = new int[stackLen];
+        }
+        this.runBase = runBase;
+        this.runLen = runLen;
     }
 
     @Override
     public void sort(Integer[] array) {
-        countSteps = 0;
-        Integer[] work = new Integer[array.length];
-        sort(array, 0, array.length, work, 0, work.length);
-        System.out.printf("Количество перестановок: %d\n", countSteps);
+        sort(array, null);
+    }
+
+    @Override
+    public void sort(Integer[] array, SortStats stats) {
+        Integer[] work = new Integer[array.length >>> 1];
+        sort(array, 0, array.length, work, 0, work.length, null, null, stats);
     }
 
     /**
@@ -122,7 +136,17 @@ public class TimSortStrategy implements SortStrategy<Integer> {
      * @param workLen  доступный размер рабочего массива
      * @since 1.8
      */
-    private static void sort(Integer[] a, int lo, int hi, Integer[] work, int workBase, int workLen) {
+    static void sort(Integer[] a, int lo, int hi, Integer[] work, int workBase, int workLen) {
+        sort(a, lo, hi, work, workBase, workLen, null, null, null);
+    }
+
+    /**
+     * То же, что и сортировка с рабочим массивом, но стек прогонов берется из переданных
+     * массивов runBaseStack и runLenStack, если их длины достаточно. Позволяет повторно использовать
+     * стек между вызовами. Шаги сортировки учитываются в stats, если он не null.
+     */
+    static void sort(Integer[] a, int lo, int hi, Integer[] work, int workBase, int workLen,
+                     int[] runBaseStack, int[] runLenStack, SortStats stats) {
         assert a != null && lo >= 0 && lo <= hi && hi <= a.length;
 
         int nRemaining = hi - lo;
@@ -131,8 +155,9 @@ public class TimSortStrategy implements SortStrategy<Integer> {
 
         // Если массив мал, выполняем "мини-TimSort" без слияний
         if (nRemaining < MIN_MERGE) {
-            int initRunLen = countRunAndMakeAscending(a, lo, hi);
-            binarySort(a, lo, hi, lo + initRunLen);
+            int initRunLen = countRunAndMakeAscending(a, lo, hi, stats);
+            if (stats != null) stats.recordRun(initRunLen);
+            binarySort(a, lo, hi, lo + initRunLen, stats);
             return;
         }
 
@@ -141,16 +166,17 @@ public class TimSortStrategy implements SortStrategy<Integer> {
          * расширяя короткие естественные прогоны до minRun элементов и объединяя прогоны
          * для поддержания инварианта стека.
          */
-        TimSortStrategy ts = new TimSortStrategy(a, work, workBase, workLen);
+        TimSortStrategy ts = new TimSortStrategy(a, work, workBase, workLen, runBaseStack, runLenStack, stats);
         int minRun = minRunLength(nRemaining);
         do {
             // Определяем следующий прогон
-            int runLen = countRunAndMakeAscending(a, lo, hi);
+            int runLen = countRunAndMakeAscending(a, lo, hi, stats);
+            if (stats != null) stats.recordRun(runLen);
 
             // Если прогон короткий, расширяем до min(minRun, nRemaining)
             if (runLen < minRun) {
                 int force = nRemaining <= minRun ? nRemaining : minRun;
-                binarySort(a, lo, lo + force, lo + runLen);
+                binarySort(a, lo, lo + force, lo + runLen, stats);
                 runLen = force;
             }
 
@@ -161,7 +187,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
             // Переходим к следующему прогону
             lo += runLen;
             nRemaining -= runLen;
-            countSteps++;
+            if (stats != null) stats.steps++;
         } while (nRemaining != 0);
 
         // Объединяем все оставшиеся прогоны для завершения сортировки
@@ -185,9 +211,10 @@ public class TimSortStrategy implements SortStrategy<Integer> {
      * @param hi    индекс после последнего элемента в диапазоне, который нужно отсортировать
      * @param start индекс первого элемента в диапазоне, который еще не известен как
      *              отсортированный ({@code lo <= start <= hi})
+     * @param stats статистика вызова, может быть null
      */
     @SuppressWarnings({"fallthrough", "rawtypes", "unchecked"})
-    private static void binarySort(Integer[] a, int lo, int hi, int start) {
+    private static void binarySort(Integer[] a, int lo, int hi, int start, SortStats stats) {
         assert lo <= start && start <= hi;
         if (start == lo)
             start++;
@@ -205,7 +232,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
              */
             while (left < right) {
                 int mid = (left + right) >>> 1;
-                countSteps++;
+                if (stats != null) stats.compared();
                 if (pivot < a[mid])
                     right = mid;
                 else
@@ -251,27 +278,29 @@ public class TimSortStrategy implements SortStrategy<Integer> {
      * @param lo индекс первого элемента в прогоне
      * @param hi индекс после последнего элемента, который может быть включен в прогон.
      *           Требуется, чтобы {@code lo < hi}.
+     * @param stats статистика вызова, может быть null
      * @return длина прогона, начинающегося с указанной позиции в указанном массиве
      */
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private static int countRunAndMakeAscending(Integer[] a, int lo, int hi) {
+    private static int countRunAndMakeAscending(Integer[] a, int lo, int hi, SortStats stats) {
         assert lo < hi;
         int runHi = lo + 1;
         if (runHi == hi) {
-            countSteps++;
+            if (stats != null) stats.steps++;
             return 1;
         }
 
         // Находим конец прогона и переворачиваем диапазон, если он убывающий
+        if (stats != null) stats.compared();
         if (a[runHi++] < a[lo]) { // Убывающий
             while (runHi < hi && a[runHi] < a[runHi - 1]) {
-                countSteps++;
+                if (stats != null) stats.compared();
                 runHi++;
             }
             reverseRange(a, lo, runHi);
         } else { // Возрастающий
             while (runHi < hi && a[runHi] >= a[runHi - 1]) {
-                countSteps++;
+                if (stats != null) stats.compared();
                 runHi++;
             }
         }
@@ -399,7 +428,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
          * Находим, где первый элемент прогона 2 входит в прогон 1. Предыдущие элементы
          * в прогоне 1 можно игнорировать (потому что они уже на своих местах).
          */
-        int k = gallopRight(a[base2], a, base1, len1, 0);
+        int k = gallopRight(a[base2], a, base1, len1, 0, stats);
         assert k >= 0;
         base1 += k;
         len1 -= k;
@@ -411,12 +440,17 @@ public class TimSortStrategy implements SortStrategy<Integer> {
          * в прогоне 2 можно игнорировать (потому что они уже на своих местах).
          */
         len2 = gallopLeft(a[base1 + len1 - 1], a,
-                base2, len2, len2 - 1);
+                base2, len2, len2 - 1, stats);
         assert len2 >= 0;
         if (len2 == 0)
             return;
 
         // Объединяем оставшиеся прогоны, используя временный массив с min(len1, len2) элементами
+        if (stats != null) {
+            stats.merges++;
+            // Меньший прогон копируется во временный массив, затем все элементы встают на места
+            stats.elementsMoved += (long) Math.min(len1, len2) + len1 + len2;
+        }
         if (len1 <= len2)
             mergeLo(base1, len1, base2, len2);
         else
@@ -434,6 +468,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
      * @param len  длина диапазона; должна быть > 0
      * @param hint индекс, с которого нужно начинать поиск, 0 <= hint < n.
      *             Чем ближе hint к результату, тем быстрее будет работать метод.
+     * @param stats статистика вызова, может быть null
      * @return целое число k,  0 <= k <= n такое, что a[b + k - 1] < key <= a[b + k],
      * при этом a[b - 1] считается минус бесконечностью, а a[b + n] - плюс бесконечностью.
      * Другими словами, ключ должен находиться по индексу b + k; или в других словах,
@@ -441,16 +476,17 @@ public class TimSortStrategy implements SortStrategy<Integer> {
      * должны следовать за ним.
      */
     private static int gallopLeft(Integer key, Integer[] a,
-                                  int base, int len, int hint) {
+                                  int base, int len, int hint, SortStats stats) {
         assert len > 0 && hint >= 0 && hint < len;
 
         int lastOfs = 0;
         int ofs = 1;
+        if (stats != null) stats.compared();
         if (key > a[base + hint]) {
             // Галопируем вправо, пока a[base+hint+lastOfs] < key <= a[base+hint+ofs]
             int maxOfs = len - hint;
             while (ofs < maxOfs && key > a[base + hint + ofs]) {
-                countSteps++;
+                if (stats != null) stats.compared();
                 lastOfs = ofs;
                 ofs = (ofs << 1) + 1;
                 if (ofs <= 0)   // int overflow
@@ -466,7 +502,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
             // Галопируем влево, пока a[base+hint-ofs] < key <= a[base+hint-lastOfs]
             final int maxOfs = hint + 1;
             while (ofs < maxOfs && key <= a[base + hint - ofs]) {
-                countSteps++;
+                if (stats != null) stats.compared();
                 lastOfs = ofs;
                 ofs = (ofs << 1) + 1;
                 if (ofs <= 0)   // int overflow
@@ -489,7 +525,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
          */
         lastOfs++;
         while (lastOfs < ofs) {
-            countSteps++;
+            if (stats != null) stats.compared();
             int m = lastOfs + ((ofs - lastOfs) >>> 1);
 
             if (key > a[base + m])
@@ -511,19 +547,21 @@ public class TimSortStrategy implements SortStrategy<Integer> {
      * @param len  длина диапазона; должна быть > 0
      * @param hint индекс, с которого нужно начинать поиск, 0 <= hint < n.
      *             Чем ближе hint к результату, тем быстрее будет работать метод.
+     * @param stats статистика вызова, может быть null
      * @return целое число k,  0 <= k <= n такое, что a[b + k - 1] <= key < a[b + k]
      */
     private static int gallopRight(Integer key, Integer[] a,
-                                   int base, int len, int hint) {
+                                   int base, int len, int hint, SortStats stats) {
         assert len > 0 && hint >= 0 && hint < len;
 
         int ofs = 1;
         int lastOfs = 0;
+        if (stats != null) stats.compared();
         if (key < a[base + hint]) {
             // Галопируем влево, пока a[b+hint - ofs] <= key < a[b+hint - lastOfs]
             int maxOfs = hint + 1;
             while (ofs < maxOfs && key < a[base + hint - ofs]) {
-                countSteps++;
+                if (stats != null) stats.compared();
                 lastOfs = ofs;
                 ofs = (ofs << 1) + 1;
                 if (ofs <= 0)   // int overflow
@@ -540,7 +578,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
             // Галопируем вправо, пока a[b+hint + lastOfs] <= key < a[b+hint + ofs]
             int maxOfs = len - hint;
             while (ofs < maxOfs && key >= a[base + hint + ofs]) {
-                countSteps++;
+                if (stats != null) stats.compared();
                 lastOfs = ofs;
                 ofs = (ofs << 1) + 1;
                 if (ofs <= 0)   // int overflow
@@ -562,7 +600,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
          */
         lastOfs++;
         while (lastOfs < ofs) {
-            countSteps++;
+            if (stats != null) stats.compared();
             int m = lastOfs + ((ofs - lastOfs) >>> 1);
 
             if (key < a[base + m])
@@ -626,7 +664,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
              */
             do {
                 assert len1 > 1 && len2 > 0;
-                countSteps++;
+                if (stats != null) stats.compared();
                 if (a[cursor2] < tmp[cursor1]) {
                     a[dest++] = a[cursor2++];
                     count2++;
@@ -641,6 +679,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
                         break outer;
                 }
             } while ((count1 | count2) < minGallop);
+            if (stats != null) stats.gallopEntries++;
 
             /*
              * Один прогон побеждает так стабильно, что галопирование может быть огромным
@@ -648,9 +687,8 @@ public class TimSortStrategy implements SortStrategy<Integer> {
              * ни один из прогонов не начнет побеждать стабильно.
              */
             do {
-                countSteps++;
                 assert len1 > 1 && len2 > 0;
-                count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0, stats);
                 if (count1 != 0) {
                     System.arraycopy(tmp, cursor1, a, dest, count1);
                     dest += count1;
@@ -663,7 +701,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
                 if (--len2 == 0)
                     break outer;
 
-                count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0, stats);
                 if (count2 != 0) {
                     System.arraycopy(a, cursor2, a, dest, count2);
                     dest += count2;
@@ -677,11 +715,12 @@ public class TimSortStrategy implements SortStrategy<Integer> {
                     break outer;
                 minGallop--;
             } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (stats != null) stats.gallopExits++;
             if (minGallop < 0)
                 minGallop = 0;
             minGallop += 2;  // Штрафуем за выход из режима галопирования
         }  // Конец "outer" цикла
-        this.minGallop = minGallop < 1 ? 1 : minGallop;  // Записываем обратно в поле
+        recordMinGallop(minGallop < 1 ? 1 : minGallop);  // Записываем обратно в поле
 
         if (len1 == 1) {
             assert len2 > 0;
@@ -748,7 +787,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
              */
             do {
                 assert len1 > 0 && len2 > 1;
-                countSteps++;
+                if (stats != null) stats.compared();
                 if (tmp[cursor2] < a[cursor1]) {
                     a[dest--] = a[cursor1--];
                     count1++;
@@ -763,6 +802,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
                         break outer;
                 }
             } while ((count1 | count2) < minGallop);
+            if (stats != null) stats.gallopEntries++;
 
             /*
              * Один прогон побеждает так стабильно, что галопирование может быть огромным
@@ -771,8 +811,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
              */
             do {
                 assert len1 > 0 && len2 > 1;
-                countSteps++;
-                count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1, stats);
                 if (count1 != 0) {
                     dest -= count1;
                     cursor1 -= count1;
@@ -785,7 +824,7 @@ public class TimSortStrategy implements SortStrategy<Integer> {
                 if (--len2 == 1)
                     break outer;
 
-                count2 = len2 - gallopLeft(a[cursor1], tmp, tmpBase, len2, len2 - 1);
+                count2 = len2 - gallopLeft(a[cursor1], tmp, tmpBase, len2, len2 - 1, stats);
                 if (count2 != 0) {
                     dest -= count2;
                     cursor2 -= count2;
@@ -799,11 +838,12 @@ public class TimSortStrategy implements SortStrategy<Integer> {
                     break outer;
                 minGallop--;
             } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (stats != null) stats.gallopExits++;
             if (minGallop < 0)
                 minGallop = 0;
             minGallop += 2;  // Штрафуем за выход из режима галопирования
         }  // Конец "outer" цикла
-        this.minGallop = minGallop < 1 ? 1 : minGallop;  // Записываем обратно в поле
+        recordMinGallop(minGallop < 1 ? 1 : minGallop);  // Записываем обратно в поле
 
         if (len2 == 1) {
             assert len1 > 0;
@@ -821,6 +861,14 @@ public class TimSortStrategy implements SortStrategy<Integer> {
         }
     }
 
+    private void recordMinGallop(int newMinGallop) {
+        if (stats != null) {
+            if (newMinGallop != minGallop) stats.minGallopChanges++;
+            stats.minGallop = newMinGallop;
+        }
+        minGallop = newMinGallop;
+    }
+
     /**
      * Обеспечивает, что внешний массив tmp имеет как минимум указанное количество
      * элементов, увеличивая его размер при необходимости. Размер увеличивается
@@ -0,0 +1,209 @@
+package sorting;
+
+import input.IntChunkConsumer;
+import input.StreamingDataReader;
+
+import java.util.Arrays;
+
+/**
+ * Отбор k наименьших или k наибольших чисел без полной сортировки.
+ * Числа добавляются по одному или порциями; в памяти хранится только куча из k элементов,
+ * поэтому источник может быть сколь угодно большим и читаться потоком
+ * ({@link #smallest(StreamingDataReader, int)}). Время - O(n log k), причем число,
+ * которое не лучше худшего из отобранных, отбрасывается одним сравнением.<br>
+ * Отбор наибольших сводится к отбору наименьших: в куче хранится ~value,
+ * а побитовое отрицание обращает порядок int.
+ */
+public final class TopK implements IntChunkConsumer {
+
+    private final int k;
+    private final boolean largest;
+    private final int[] heap;
+    private int size;
+    private long count;
+
+    /**
+     * @param k       сколько чисел отобрать
+     * @param largest true - наибольшие, false - наименьшие
+     */
+    public TopK(int k, boolean largest) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k не может быть отрицательным: " + k);
+        }
+        this.k = k;
+        this.largest = largest;
+        this.heap = new int[k];
+    }
+
+    /**
+     * k наименьших чисел массива по возрастанию; массив не изменяется.
+     */
+    public static int[] smallest(int[] array, int k) {
+        TopK top = new TopK(k, false);
+        top.add(array, 0, array.length);
+        return top.toSortedArray();
+    }
+
+    /**
+     * k наибольших чисел массива по убыванию; массив не изменяется.
+     */
+    public static int[] largest(int[] array, int k) {
+        TopK top = new TopK(k, true);
+        top.add(array, 0, array.length);
+        return top.toSortedArray();
+    }
+
+    /**
+     * k наименьших чисел источника по возрастанию; источник читается порциями, целиком в память не загружается.
+     */
+    public static int[] smallest(StreamingDataReader reader, int k) {
+        TopK top = new TopK(k, false);
+        reader.forEachChunk(top);
+        return top.toSortedArray();
+    }
+
+    /**
+     * k наибольших чисел источника по убыванию; источник читается порциями, целиком в память не загружается.
+     */
+    public static int[] largest(StreamingDataReader reader, int k) {
+        TopK top = new TopK(k, true);
+        reader.forEachChunk(top);
+        return top.toSortedArray();
+    }
+
+    /**
+     * Частичная сортировка на месте: после вызова array[fromIndex, fromIndex + min(k, длина))
+     * содержит наименьшие числа диапазона по возрастанию, порядок остальных не определен.
+     */
+    public static void partialSort(int[] array, int fromIndex, int toIndex, int k) {
+        IntTimSortStrategy.rangeCheck(array.length, fromIndex, toIndex);
+        if (k < 0) {
+            throw new IllegalArgumentException("k не может быть отрицательным: " + k);
+        }
+        int m = Math.min(k, toIndex - fromIndex);
+        if (m == 0) {
+            return;
+        }
+        heapify(array, fromIndex, m);
+        for (int i = fromIndex + m; i < toIndex; i++) {
+            int value = array[i];
+            if (value < array[fromIndex]) {
+                array[i] = array[fromIndex];
+                array[fromIndex] = value;
+                siftDown(array, fromIndex, 0, m);
+            }
+        }
+        // Пирамидальная сортировка отобранных: максимум уходит в конец
+        for (int end = m - 1; end > 0; end--) {
+            int max = array[fromIndex];
+            array[fromIndex] = array[fromIndex + end];
+            array[fromIndex + end] = max;
+            siftDown(array, fromIndex, 0, end);
+        }
+    }
+
+    public void add(int value) {
+        count++;
+        int key = largest ? ~value : value;
+        if (size < k) {
+            heap[size++] = key;
+            if (size == k) {
+                heapify(heap, 0, k);
+            }
+        } else if (k > 0 && key < heap[0]) {
+            heap[0] = key;
+            siftDown(heap, 0, 0, k);
+        }
+    }
+
+    public void add(int[] values, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end && size < k) {
+            add(values[i++]);
+        }
+        if (i == end) {
+            return;
+        }
+        count += end - i;
+        if (k == 0) {
+            return;
+        }
+        // Куча заполнена: худший из отобранных держим в локальной переменной
+        int worst = heap[0];
+        for (; i < end; i++) {
+            int key = largest ? ~values[i] : values[i];
+            if (key < worst) {
+                heap[0] = key;
+                siftDown(heap, 0, 0, k);
+                worst = heap[0];
+            }
+        }
+    }
+
+    @Override
+    public void accept(int[] chunk, int length) {
+        add(chunk, 0, length);
+    }
+
+    /**
+     * Сколько чисел отобрано: min(k, количество добавленных).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Сколько чисел добавлено всего.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Отобранные числа: наименьшие - по возрастанию, наибольшие - по убыванию.
+     * Отбор можно продолжить после вызова.
+     */
+    public int[] toSortedArray() {
+        int[] result = Arrays.copyOf(heap, size);
+        Arrays.sort(result);
+        if (largest) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = ~result[i];
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        size = 0;
+        count = 0;
+    }
+
+    /**
+     * Строит max-кучу из array[base, base + n).
+     */
+    private static void heapify(int[] array, int base, int n) {
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, base, i, n);
+        }
+    }
+
+    private static void siftDown(int[] array, int base, int i, int n) {
+        int value = array[base + i];
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < n && array[base + right] > array[base + child]) {
+                child = right;
+            }
+            if (array[base + child] <= value) {
+                break;
+            }
+            array[base + i] = array[base + child];
+            i = child;
+        }
+        array[base + i] = value;
+    }
+}
@@ -0,0 +1,62 @@
+package input;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextIntParserTest {
+
+    @Test
+    void acceptsLeadingZerosLikeParseInt() throws IOException {
+        assertArrayEquals(new int[]{1, Integer.MIN_VALUE, 0, Integer.MAX_VALUE},
+                parse("00000000001 -000000000002147483648 0000 +002147483647"));
+    }
+
+    @Test
+    void rejectsValuesOutsideInt() {
+        assertThrows(RuntimeException.class, () -> parse("2147483648"));
+        assertThrows(RuntimeException.class, () -> parse("-2147483649"));
+        assertThrows(RuntimeException.class, () -> parse("000012345678901"));
+        assertThrows(RuntimeException.class, () -> parse("-"));
+    }
+
+    /**
+     * Как при разборе строк через split("[,\\s]+"): пустая строка и разделитель в начале
+     * строки дают пустое значение, разделители в конце строки и внутри нее допускаются.
+     */
+    @Test
+    void rejectsEmptyTokensLikeSplit() {
+        for (String text : new String[]{"1\n\n2", " 1", ",1", "1\n 2", "1\r\n\r\n2", "1\r 2", "\n"}) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> parse(text), text);
+            assertTrue(e.getMessage().startsWith("Файл содержит некорректное значение: "), e.getMessage());
+        }
+    }
+
+    @Test
+    void acceptsSeparatorsInsideAndAtEndOfLines() throws IOException {
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5},
+                parse("1, 2 ,\t3\r\n4 ,\n5\n"));
+        assertArrayEquals(new int[0], parse(""));
+    }
+
+    private static int[] parse(String text) throws IOException {
+        try (TextIntParser parser = new TextIntParser(Channels.newChannel(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))))) {
+            int[] numbers = new int[16];
+            int count = 0;
+            int read;
+            while ((read = parser.read(numbers, count, numbers.length - count)) > 0) {
+                count += read;
+            }
+            return Arrays.copyOf(numbers, count);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package service;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import sorting.IntSortStrategy;
+import sorting.IntTimSortStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortServiceTest {
+
+    private static final int BATCH_THRESHOLD = 256;
+
+    @Test
+    void sortsSmallAndLargeArrays() throws Exception {
+        Random random = new Random(1);
+        try (SortService service = new SortService(2, new IntTimSortStrategy(), BATCH_THRESHOLD, 1 << 20)) {
+            List<int[]> expected = new ArrayList<>();
+            List<CompletableFuture<int[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                int[] array = random.ints(random.nextInt(2 * BATCH_THRESHOLD)).toArray();
+                int[] sorted = array.clone();
+                Arrays.sort(sorted);
+                expected.add(sorted);
+                futures.add(service.submit(array));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertArrayEquals(expected.get(i), futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    /**
+     * Очередь длиннее MAX_BATCH_SIZE к моменту закрытия: все принятые запросы
+     * должны досортироваться, а не отклониться.
+     */
+    @Test
+    void closeCompletesAllAcceptedSmallRequests() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SortService service = new SortService(1, blockingStrategy(release), BATCH_THRESHOLD, 1 << 20);
+
+        // Единственный поток занят большим массивом, маленькие копятся в очереди
+        CompletableFuture<int[]> large = service.submit(new int[BATCH_THRESHOLD]);
+        Random random = new Random(2);
+        List<CompletableFuture<int[]>> small = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            small.add(service.submit(random.ints(1 + random.nextInt(BATCH_THRESHOLD - 1)).toArray()));
+        }
+
+        Thread closer = new Thread(service::close);
+        closer.start();
+        while (!service.isClosed()) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        closer.join(TimeUnit.SECONDS.toMillis(30));
+
+        large.get(1, TimeUnit.SECONDS);
+        for (CompletableFuture<int[]> future : small) {
+            assertTrue(future.isDone());
+            assertSorted(future.get());
+        }
+        assertEquals(5001, service.getCompletedRequests());
+        assertEquals(0, service.getQueuedElements());
+    }
+
+    /**
+     * Пока сервис работает, одна задача сортирует не больше MAX_BATCH_SIZE массивов
+     * и переназначает себя, а не занимает поток до опустошения очереди.
+     */
+    @Test
+    void drainIsSplitIntoBatchesWhileRunning() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SortService service = new SortService(1, blockingStrategy(release), BATCH_THRESHOLD, 1 << 20);
+        service.submit(new int[BATCH_THRESHOLD]);
+        List<CompletableFuture<int[]>> small = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            small.add(service.submit(new int[]{3, 1, 2}));
+        }
+        release.countDown();
+        CompletableFuture.allOf(small.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        // Счетчик пакетов увеличивается после завершения запросов пакета
+        service.close();
+
+        assertTrue(service.getBatches() >= 5, "ожидалось не меньше 5 пакетов: " + service.getBatches());
+        assertEquals(0, service.getQueuedElements());
+    }
+
+    @Test
+    void submitAfterCloseIsRejectedWithoutLeakingCapacity() {
+        SortService service = new SortService(1, new IntTimSortStrategy(), BATCH_THRESHOLD, 1024);
+        service.close();
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit(new int[10]));
+        assertThrows(RejectedExecutionException.class, () -> service.submit(new int[BATCH_THRESHOLD]));
+        assertThrows(RejectedExecutionException.class,
+                () -> service.trySubmit(new int[10], 1, TimeUnit.SECONDS));
+        assertEquals(0, service.getQueuedElements());
+    }
+
+    /**
+     * Запросы, поданные одновременно с закрытием, либо отклоняются сразу, либо
+     * завершаются; ни одно future не остается незавершенным, место в очереди не теряется.
+     */
+    @RepeatedTest(50)
+    void submitConcurrentWithCloseNeverLosesRequests() throws Exception {
+        SortService service = new SortService(2, new IntTimSortStrategy(), BATCH_THRESHOLD, 1 << 20);
+        int submitters = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<List<CompletableFuture<int[]>>> accepted = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < submitters; t++) {
+            List<CompletableFuture<int[]>> futures = new ArrayList<>();
+            accepted.add(futures);
+            Thread thread = new Thread(() -> {
+                Random random = new Random();
+                try {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        futures.add(service.submit(random.ints(1 + random.nextInt(32)).toArray()));
+                    }
+                } catch (RejectedExecutionException e) {
+                    // Сервис закрыт - дальше запросы не подаются
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        Thread.sleep(1);
+        service.close();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        for (List<CompletableFuture<int[]>> futures : accepted) {
+            for (CompletableFuture<int[]> future : futures) {
+                assertTrue(future.isDone(), "принятый запрос не завершен");
+                assertSorted(future.get());
+            }
+        }
+        assertEquals(0, service.getQueuedElements());
+    }
+
+    private static IntSortStrategy blockingStrategy(CountDownLatch release) {
+        return (array, fromIndex, toIndex) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Arrays.sort(array, fromIndex, toIndex);
+        };
+    }
+
+    private static void assertSorted(int[] array) {
+        for (int i = 1; i < array.length; i++) {
+            assertTrue(array[i - 1] <= array[i], "массив не отсортирован");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AdaptiveSortStrategyTest {
+
+    private final AdaptiveSortStrategy strategy =
+            new AdaptiveSortStrategy(new ParallelTimSortStrategy(new ForkJoinPool(4), 1 << 10));
+
+    @Test
+    void sortsIntegerArraysOfEveryProfile() {
+        Random random = new Random(7);
+        int[][] inputs = {
+                random.ints(50).toArray(),
+                random.ints(5000, 0, 100).toArray(),
+                random.ints(5000).toArray(),
+                random.ints(300_000).toArray(),
+        };
+        for (int[] input : inputs) {
+            Integer[] array = Arrays.stream(input).boxed().toArray(Integer[]::new);
+            Integer[] expected = array.clone();
+            Arrays.sort(expected);
+
+            strategy.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    /**
+     * Почти упорядоченный массив с широким диапазоном значений уходит в TimSort,
+     * который переставляет сами объекты.
+     */
+    @Test
+    void timSortBranchKeepsIntegerObjects() {
+        Integer[] array = new Integer[10_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Integer.valueOf(1_000_000 + i * 100_000);
+        }
+        Integer[] objects = array.clone();
+        Integer tmp = array[10];
+        array[10] = array[11];
+        array[11] = tmp;
+
+        strategy.sort(array);
+        for (int i = 0; i < array.length; i++) {
+            assertSame(objects[i], array[i]);
+        }
+    }
+}
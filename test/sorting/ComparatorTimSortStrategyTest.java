@@ -0,0 +1,48 @@
+package sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComparatorTimSortStrategyTest {
+
+    @Test
+    void sortsByLongKeyStably() {
+        Random random = new Random(8);
+        long[][] records = new long[5000][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new long[]{random.nextInt(50), i}; // Ключ и исходная позиция
+        }
+        ComparatorTimSortStrategy<long[]> strategy = ComparatorTimSortStrategy.byLongKey(r -> r[0]);
+        SortStats stats = new SortStats();
+
+        strategy.sort(records, stats);
+        for (int i = 1; i < records.length; i++) {
+            assertTrue(records[i - 1][0] < records[i][0]
+                    || records[i - 1][0] == records[i][0] && records[i - 1][1] < records[i][1]);
+        }
+        assertTrue(stats.getComparisons() > 0);
+    }
+
+    @Test
+    void naturalOrderWithAndWithoutStats() {
+        String[] words = {"груша", "яблоко", "айва", "слива", "айва"};
+        String[] expected = words.clone();
+        Arrays.sort(expected);
+        ComparatorTimSortStrategy<String> strategy = ComparatorTimSortStrategy.naturalOrder();
+
+        String[] plain = words.clone();
+        strategy.sort(plain);
+        assertArrayEquals(expected, plain);
+
+        String[] counted = words.clone();
+        SortStats stats = new SortStats();
+        strategy.sort(counted, stats);
+        assertArrayEquals(expected, counted);
+        assertTrue(stats.getComparisons() >= words.length - 1);
+    }
+}
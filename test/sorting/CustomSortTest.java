@@ -0,0 +1,30 @@
+package sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class CustomSortTest {
+
+    private static final ParallelTimSortStrategy STRATEGY = new ParallelTimSortStrategy(new ForkJoinPool(4), 64);
+
+    @Test
+    void parallelEvenOddMatchesSequential() {
+        int[] array = new Random(5).ints(200_000, -1000, 1000).toArray();
+        for (boolean sortEven : new boolean[]{true, false}) {
+            int[] expected = array.clone();
+            CustomSort.sortEvenOdd(expected, new IntTimSortStrategy(), sortEven);
+            int[] actual = array.clone();
+            CustomSort.parallelSortEvenOdd(actual, STRATEGY, sortEven);
+            assertArrayEquals(expected, actual);
+
+            Integer[] boxed = Arrays.stream(array).boxed().toArray(Integer[]::new);
+            CustomSort.parallelSortEvenOdd(boxed, STRATEGY, sortEven);
+            assertArrayEquals(expected, IntArrays.toIntArray(boxed));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelTimSortStrategyTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Test
+    void sortsSubrangeWithWorkBufferOfRangeLength() {
+        ParallelTimSortStrategy strategy = new ParallelTimSortStrategy(POOL, 64);
+        Random random = new Random(3);
+        for (int n : new int[]{1000, 4097, 20000}) {
+            int[] array = random.ints(n, -1000, 1000).toArray();
+            int from = n / 3;
+            int to = n - n / 5;
+            int[] expected = array.clone();
+            Arrays.sort(expected, from, to);
+
+            strategy.sort(array, from, to);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    void sortsIntegerArrays() {
+        ParallelTimSortStrategy strategy = new ParallelTimSortStrategy(POOL, 64);
+        Integer[] array = new Random(4).ints(10000).boxed().toArray(Integer[]::new);
+        Integer[] expected = array.clone();
+        Arrays.sort(expected);
+
+        strategy.sort(array);
+        assertArrayEquals(expected, array);
+    }
+
+    /**
+     * Integer[] сортируется без новой упаковки: остаются те же объекты, равные - в исходном порядке.
+     */
+    @Test
+    void keepsIntegerObjectsAndOrderOfEqualElements() {
+        ParallelTimSortStrategy strategy = new ParallelTimSortStrategy(POOL, 64);
+        Random random = new Random(6);
+        Integer[] array = new Integer[20000];
+        Map<Integer, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < array.length; i++) {
+            // Значения вне кэша Integer: у каждого элемента свой объект
+            array[i] = Integer.valueOf(1000 + random.nextInt(100));
+            positions.put(array[i], i);
+        }
+
+        strategy.sort(array);
+        for (int i = 0; i < array.length; i++) {
+            assertTrue(positions.containsKey(array[i]), "элемент упакован заново");
+            if (i > 0) {
+                assertTrue(array[i - 1] <= array[i], "массив не отсортирован");
+                if (array[i - 1].equals(array[i])) {
+                    assertTrue(positions.get(array[i - 1]) < positions.get(array[i]), "сортировка неустойчива");
+                }
+            }
+        }
+    }
+}